@@ -2,8 +2,10 @@ package com.miniprojects.learnandassessportal;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LearnandassessportalApplication {
 
 	public static void main(String[] args) {
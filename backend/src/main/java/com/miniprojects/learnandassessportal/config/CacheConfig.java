@@ -0,0 +1,25 @@
+package com.miniprojects.learnandassessportal.config;
+
+import com.miniprojects.learnandassessportal.service.LocalSharedCacheStore;
+import com.miniprojects.learnandassessportal.service.SharedCacheStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Second tier of the content caches (see ContentCache).
+ */
+@Configuration
+public class CacheConfig {
+
+    // none: L1 only; local: in-memory stand-in. A shared store (e.g. Redis) plugs in by
+    // declaring its own SharedCacheStore bean in place of this one.
+    @Bean
+    public SharedCacheStore sharedCacheStore(@Value("${app.content-cache.l2:none}") String l2) {
+        return switch (l2.toLowerCase()) {
+            case "none" -> SharedCacheStore.NONE;
+            case "local" -> new LocalSharedCacheStore();
+            default -> throw new IllegalArgumentException("Unknown app.content-cache.l2: " + l2);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.miniprojects.learnandassessportal.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Dedicated thread pools, so background work never runs on Tomcat request threads.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    // Runs CSV bulk-import jobs
+    @Bean
+    public ThreadPoolTaskExecutor importJobExecutor(@Value("${app.import-jobs.threads:2}") int threads,
+                                                    @Value("${app.import-jobs.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Runs text extraction of uploaded files; sized to the CPU since PDFBox/POI parsing is CPU-bound.
+    // A full queue rejects (503) rather than extracting on the request thread, where the
+    // per-file timeout and cancellation wouldn't apply.
+    @Bean
+    public ThreadPoolTaskExecutor extractionExecutor(@Value("${app.extraction.threads:0}") int threads,
+                                                     @Value("${app.extraction.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("extract-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // Runs BCrypt for login and registration. Bounded below the core count so a login storm
+    // can't take every CPU from the rest of the API; a full queue rejects (503) instead of waiting.
+    // Every queued hash parks a Tomcat thread, so the queue is kept to a few hashes per thread
+    // (queue-capacity=0: 4 per thread), far below the request pool.
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${app.password-hashing.threads:0}") int threads,
+                                                          @Value("${app.password-hashing.queue-capacity:0}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity > 0 ? queueCapacity : poolSize * 4);
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+}
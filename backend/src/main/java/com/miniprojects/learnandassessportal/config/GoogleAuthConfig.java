@@ -0,0 +1,39 @@
+package com.miniprojects.learnandassessportal.config;
+
+import com.miniprojects.learnandassessportal.utils.FileJwksSource;
+import com.miniprojects.learnandassessportal.utils.GoogleTokenVerifier;
+import com.miniprojects.learnandassessportal.utils.HttpJwksSource;
+import com.miniprojects.learnandassessportal.utils.JwksSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Google sign-in: one verifier for the application's lifetime, with its signing keys kept
+ * fresh in the background (see GoogleTokenVerifier).
+ */
+@Configuration
+public class GoogleAuthConfig {
+
+    @Bean(initMethod = "start")
+    public GoogleTokenVerifier googleTokenVerifier(
+            @Value("${app.google.client-id:179579451755-pi8s5oc9057drsoophil46p5vdpp22cc.apps.googleusercontent.com}") String clientId,
+            @Value("${app.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}") String jwksUri,
+            @Value("${app.google.jwks-file:}") String jwksFile,
+            @Value("${app.google.key-store-file:}") String keyStoreFile,
+            @Value("${app.google.min-refresh-seconds:60}") long minRefreshSeconds,
+            TaskScheduler taskScheduler) {
+        Duration minRefresh = Duration.ofSeconds(minRefreshSeconds);
+        // A local JWKS file replaces Google's endpoint (offline runs, tests with self-signed tokens)
+        JwksSource source = jwksFile.isBlank()
+                ? new HttpJwksSource(jwksUri, Duration.ofHours(1))
+                : new FileJwksSource(Path.of(jwksFile), Duration.ofMinutes(5));
+        Path store = keyStoreFile.isBlank() ? null : Path.of(keyStoreFile);
+        return new GoogleTokenVerifier(source, store, List.of(clientId), taskScheduler, minRefresh);
+    }
+}
@@ -1,6 +1,7 @@
 package com.miniprojects.learnandassessportal.config;
 
-import com.miniprojects.learnandassessportal.utils.JwtUtils;
+import com.miniprojects.learnandassessportal.service.TokenRevocationService;
+import com.miniprojects.learnandassessportal.utils.TokenVerifier;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,10 +21,12 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtils jwtUtils;
+    private final TokenVerifier tokenVerifier;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils) {
-        this.jwtUtils = jwtUtils;
+    public JwtAuthenticationFilter(TokenVerifier tokenVerifier, TokenRevocationService tokenRevocationService) {
+        this.tokenVerifier = tokenVerifier;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -36,14 +39,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if (jwtUtils.validateToken(token)) {
-                String email = jwtUtils.getEmailFromToken(token);
-                String role = jwtUtils.getRoleFromToken(token);
-
+            // One parse (or a cache hit) per request; the revocation check is in memory
+            TokenVerifier.VerifiedToken verified = tokenVerifier.verify(token);
+            if (verified != null && !tokenRevocationService.isRevoked(verified.jti())) {
                 UserDetails userDetails = new User(
-                        email,
+                        verified.email(),
                         "",
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + verified.role()))
                 );
 
                 UsernamePasswordAuthenticationToken authentication =
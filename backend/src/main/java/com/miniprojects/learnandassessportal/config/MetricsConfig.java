@@ -0,0 +1,204 @@
+package com.miniprojects.learnandassessportal.config;
+
+import com.miniprojects.learnandassessportal.service.ContentCache;
+import com.miniprojects.learnandassessportal.service.ExtractionCache;
+import com.miniprojects.learnandassessportal.service.PasswordHashingService;
+import com.miniprojects.learnandassessportal.service.QuestionPoolCache;
+import com.miniprojects.learnandassessportal.service.QuizAttemptRecorder;
+import com.miniprojects.learnandassessportal.service.QuizAttemptSessionStore;
+import com.miniprojects.learnandassessportal.service.TieredCache;
+import com.miniprojects.learnandassessportal.service.TokenRevocationService;
+import com.miniprojects.learnandassessportal.utils.TokenVerifier;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Application metrics, exposed with the standard Actuator ones at /actuator/prometheus.
+ *
+ * Service classes annotated with @Timed report app.service (tagged class and method);
+ * controllers are covered by http.server.requests. The gauges below expose the state
+ * of the in-memory caches and the quiz attempt write-behind queue.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Makes @Timed on Spring beans work
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Hibernate statement counts per request, see RequestMetricsFilter
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public MeterBinder questionPoolMetrics(QuestionPoolCache questionPoolCache) {
+        return registry -> {
+            Gauge.builder("quiz.question.pools", questionPoolCache, QuestionPoolCache::getCachedPoolCount)
+                    .description("Module question pools held in memory")
+                    .register(registry);
+            Gauge.builder("quiz.question.pool.questions", questionPoolCache, QuestionPoolCache::getCachedQuestionCount)
+                    .description("Questions across all cached pools")
+                    .register(registry);
+            Gauge.builder("quiz.question.pool.largest", questionPoolCache, QuestionPoolCache::getLargestPoolSize)
+                    .description("Questions in the largest cached pool")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder quizAttemptMetrics(QuizAttemptRecorder recorder, QuizAttemptSessionStore sessionStore) {
+        return registry -> {
+            Gauge.builder("quiz.attempts.queue.depth", recorder, QuizAttemptRecorder::getQueueDepth)
+                    .register(registry);
+            Gauge.builder("quiz.attempts.queue.capacity", recorder, QuizAttemptRecorder::getQueueCapacity)
+                    .register(registry);
+            FunctionCounter.builder("quiz.attempts.enqueued", recorder, QuizAttemptRecorder::getEnqueuedCount)
+                    .register(registry);
+            FunctionCounter.builder("quiz.attempts.written", recorder, QuizAttemptRecorder::getWrittenCount)
+                    .register(registry);
+            FunctionCounter.builder("quiz.attempts.spooled", recorder, QuizAttemptRecorder::getSpooledCount)
+                    .register(registry);
+            FunctionCounter.builder("quiz.attempts.failed.batches", recorder, QuizAttemptRecorder::getFailedBatchCount)
+                    .register(registry);
+            FunctionCounter.builder("quiz.attempts.unmatched", recorder, QuizAttemptRecorder::getUnmatchedCount)
+                    .description("Attempts not written because the student or quiz no longer exists")
+                    .register(registry);
+            FunctionCounter.builder("quiz.attempts.dead.lettered", recorder, QuizAttemptRecorder::getDeadLetteredCount)
+                    .description("Attempts the database rejected even on their own, kept in the dead-letter file")
+                    .register(registry);
+            Gauge.builder("quiz.attempt.sessions", sessionStore, QuizAttemptSessionStore::size)
+                    .description("Open randomized quiz attempts")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder extractionCacheMetrics(ExtractionCache extractionCache) {
+        return registry -> {
+            FunctionCounter.builder("quiz.extraction.cache.requests", extractionCache, ExtractionCache::getHitCount)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("quiz.extraction.cache.requests", extractionCache, ExtractionCache::getDiskHitCount)
+                    .tag("result", "disk-hit")
+                    .register(registry);
+            FunctionCounter.builder("quiz.extraction.cache.requests", extractionCache, ExtractionCache::getMissCount)
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("quiz.extraction.cache.entries", extractionCache, ExtractionCache::size)
+                    .register(registry);
+            Gauge.builder("quiz.extraction.cache.spilled.bytes", extractionCache, ExtractionCache::getSpilledBytes)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder contentCacheMetrics(ContentCache contentCache) {
+        return registry -> {
+            for (TieredCache<?, ?> cache : contentCache.getCaches()) {
+                FunctionCounter.builder("app.content.cache.requests", cache, TieredCache::getHitCount)
+                        .tag("cache", cache.getName()).tag("result", "hit")
+                        .register(registry);
+                FunctionCounter.builder("app.content.cache.requests", cache, TieredCache::getL2HitCount)
+                        .tag("cache", cache.getName()).tag("result", "l2-hit")
+                        .register(registry);
+                FunctionCounter.builder("app.content.cache.requests", cache, TieredCache::getMissCount)
+                        .tag("cache", cache.getName()).tag("result", "miss")
+                        .register(registry);
+                FunctionCounter.builder("app.content.cache.load.failures", cache, TieredCache::getLoadFailureCount)
+                        .tag("cache", cache.getName())
+                        .register(registry);
+                FunctionCounter.builder("app.content.cache.evictions", cache, TieredCache::getEvictionCount)
+                        .tag("cache", cache.getName())
+                        .description("Entries dropped to stay under max-entries")
+                        .register(registry);
+                Gauge.builder("app.content.cache.hit.ratio", cache, TieredCache::getHitRatio)
+                        .tag("cache", cache.getName())
+                        .description("Lookups answered without a database load")
+                        .register(registry);
+                Gauge.builder("app.content.cache.entries", cache, TieredCache::size)
+                        .tag("cache", cache.getName())
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder tokenVerifierMetrics(TokenVerifier tokenVerifier) {
+        return registry -> {
+            FunctionCounter.builder("app.jwt.verifications", tokenVerifier, TokenVerifier::getHitCount)
+                    .tag("result", "cached")
+                    .register(registry);
+            FunctionCounter.builder("app.jwt.verifications", tokenVerifier, TokenVerifier::getMissCount)
+                    .tag("result", "parsed")
+                    .register(registry);
+            FunctionCounter.builder("app.jwt.verifications", tokenVerifier, TokenVerifier::getRejectedCount)
+                    .tag("result", "rejected")
+                    .register(registry);
+            Gauge.builder("app.jwt.verified.cache.entries", tokenVerifier, TokenVerifier::size)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder tokenRevocationMetrics(TokenRevocationService revocationService) {
+        return registry -> {
+            FunctionCounter.builder("app.jwt.revocation.checks", revocationService, TokenRevocationService::getCheckCount)
+                    .register(registry);
+            FunctionCounter.builder("app.jwt.revocation.filter.hits", revocationService, TokenRevocationService::getFilterHitCount)
+                    .description("Checks that had to be confirmed in the database")
+                    .register(registry);
+            FunctionCounter.builder("app.jwt.revocation.revoked", revocationService, TokenRevocationService::getRevokedHitCount)
+                    .description("Requests refused because the token was revoked")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitFilter rateLimitFilter) {
+        return registry -> {
+            for (RateLimitFilter.Category category : RateLimitFilter.Category.values()) {
+                String tag = category.name().toLowerCase();
+                FunctionCounter.builder("app.rate.limit.throttled", rateLimitFilter, f -> f.getThrottledCount(category))
+                        .description("Requests refused with 429")
+                        .tag("category", tag)
+                        .register(registry);
+                Gauge.builder("app.rate.limit.clients", rateLimitFilter, f -> f.getTrackedClients(category))
+                        .description("Clients with a partly used bucket")
+                        .tag("category", tag)
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingService passwordHashingService,
+                                              @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor executor) {
+        return registry -> {
+            Gauge.builder("app.password.hashing.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                    .description("Password hashes waiting for a thread")
+                    .register(registry);
+            Gauge.builder("app.password.hashing.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                    .register(registry);
+            FunctionCounter.builder("app.password.hashing.completed", executor, e -> e.getThreadPoolExecutor().getCompletedTaskCount())
+                    .register(registry);
+            FunctionCounter.builder("app.password.hashing.rejected", passwordHashingService, PasswordHashingService::getRejectedCount)
+                    .description("Hashes refused with 503 because the queue was full")
+                    .register(registry);
+            FunctionCounter.builder("app.password.hashing.timed.out", passwordHashingService, PasswordHashingService::getTimedOutCount)
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,274 @@
+package com.miniprojects.learnandassessportal.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniprojects.learnandassessportal.utils.TokenBucket;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throttles the endpoints one client can use to degrade the portal for everyone: sign-in
+ * (password hashing), uploads (large files parsed in memory) and quiz endpoints (the random
+ * quiz would otherwise let a script harvest the question pool).
+ *
+ * Runs in the security chain right after JwtAuthenticationFilter. Each category has its own
+ * token buckets, keyed by the authenticated user's email or, without one, the client IP.
+ * Sign-in is keyed by account so a class behind one NAT address isn't throttled as one
+ * client: login by IP plus the submitted email, refresh by the refresh-token family. On top
+ * of that, every sign-in request also takes from a generous per-IP bucket (AUTH_IP) so
+ * rotating emails doesn't get around the limit. Over the limit, requests get 429 with
+ * Retry-After.
+ *
+ * Buckets that have refilled completely are dropped every sweep-interval-ms, so the maps only
+ * hold recently active clients. A category holds at most max-keys clients; beyond that, new
+ * clients share one overflow bucket until the next sweep.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public enum Category { AUTH, AUTH_IP, UPLOAD, QUIZ }
+
+    // Sign-in bodies are tiny; anything larger is passed on unread and keyed by IP
+    private static final int MAX_PEEKED_BODY = 8 * 1024;
+
+    private record Limit(int capacity, int refillPerMinute) {}
+
+    private final boolean enabled;
+    private final int maxKeys;
+    private final Map<Category, Limit> limits = new EnumMap<>(Category.class);
+    private final Map<Category, ConcurrentHashMap<String, TokenBucket>> buckets = new EnumMap<>(Category.class);
+    private final Map<Category, TokenBucket> overflow = new EnumMap<>(Category.class);
+    private final Map<Category, AtomicLong> throttled = new EnumMap<>(Category.class);
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.max-keys:100000}") int maxKeys,
+                           @Value("${app.rate-limit.auth.capacity:30}") int authCapacity,
+                           @Value("${app.rate-limit.auth.refill-per-minute:30}") int authRefill,
+                           @Value("${app.rate-limit.auth-ip.capacity:1000}") int authIpCapacity,
+                           @Value("${app.rate-limit.auth-ip.refill-per-minute:1000}") int authIpRefill,
+                           @Value("${app.rate-limit.upload.capacity:5}") int uploadCapacity,
+                           @Value("${app.rate-limit.upload.refill-per-minute:5}") int uploadRefill,
+                           @Value("${app.rate-limit.quiz.capacity:30}") int quizCapacity,
+                           @Value("${app.rate-limit.quiz.refill-per-minute:30}") int quizRefill,
+                           ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+        this.objectMapper = objectMapper;
+        limits.put(Category.AUTH, new Limit(authCapacity, authRefill));
+        limits.put(Category.AUTH_IP, new Limit(authIpCapacity, authIpRefill));
+        limits.put(Category.UPLOAD, new Limit(uploadCapacity, uploadRefill));
+        limits.put(Category.QUIZ, new Limit(quizCapacity, quizRefill));
+        long now = System.nanoTime();
+        for (Category category : Category.values()) {
+            Limit limit = limits.get(category);
+            buckets.put(category, new ConcurrentHashMap<>());
+            overflow.put(category, new TokenBucket(limit.capacity(), limit.refillPerMinute(), now));
+            throttled.put(category, new AtomicLong());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || categorize(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Category category = categorize(request);
+        long now = System.nanoTime();
+        String key;
+        if (category == Category.AUTH) {
+            long ipWait = bucketFor(Category.AUTH_IP, "ip:" + request.getRemoteAddr(), now).tryConsume(now);
+            if (ipWait != 0) {
+                reject(Category.AUTH_IP, ipWait, response);
+                return;
+            }
+            PeekedRequest peeked = PeekedRequest.of(request);
+            key = signInKey(peeked);
+            request = peeked;
+        } else {
+            key = clientKey(request);
+        }
+        long waitNanos = bucketFor(category, key, now).tryConsume(now);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        reject(category, waitNanos, response);
+    }
+
+    private void reject(Category category, long waitNanos, HttpServletResponse response) throws IOException {
+        throttled.get(category).incrementAndGet();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"message\":"
+                + "\"Too many requests, try again in " + retryAfter + " seconds\"}");
+    }
+
+    /**
+     * Drops buckets that have refilled completely; a client coming back gets a new, full one.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().forEach(map -> map.values().removeIf(bucket -> bucket.isFull(now)));
+    }
+
+    public long getThrottledCount(Category category) {
+        return throttled.get(category).get();
+    }
+
+    public int getTrackedClients(Category category) {
+        return buckets.get(category).size();
+    }
+
+    private TokenBucket bucketFor(Category category, String key, long now) {
+        ConcurrentHashMap<String, TokenBucket> map = buckets.get(category);
+        TokenBucket bucket = map.get(key);
+        if (bucket != null) return bucket;
+        if (map.size() >= maxKeys) return overflow.get(category);
+
+        Limit limit = limits.get(category);
+        return map.computeIfAbsent(key, k -> new TokenBucket(limit.capacity(), limit.refillPerMinute(), now));
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        // Behind a proxy, set server.forward-headers-strategy so this is the client's address
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Login: client IP plus the submitted email. Refresh: the token's family, which the token
+     * carries as its prefix (see RefreshTokenService). Anything else: user or IP.
+     */
+    private String signInKey(PeekedRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        JsonNode body = request.json(objectMapper);
+        if (path.equals("/api/auth/login") && body.hasNonNull("email")) {
+            return "login:" + request.getRemoteAddr() + "|" + body.get("email").asText().trim().toLowerCase(Locale.ROOT);
+        }
+        if (path.equals("/api/auth/refresh") && body.hasNonNull("refreshToken")) {
+            String token = body.get("refreshToken").asText();
+            int dot = token.indexOf('.');
+            if (dot > 0) return "family:" + token.substring(0, dot);
+        }
+        return clientKey(request);
+    }
+
+    private static Category categorize(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean post = "POST".equals(request.getMethod());
+
+        if (path.startsWith("/api/auth/")) {
+            return post ? Category.AUTH : null;
+        }
+        if (post && (path.endsWith("/upload") || path.endsWith("/upload/preview") || path.endsWith("/bulk-upload"))) {
+            return Category.UPLOAD;
+        }
+        if (path.startsWith("/api/modules/")
+                && (path.endsWith("/quizzes/random") || (post && path.endsWith("/submit")))) {
+            return Category.QUIZ;
+        }
+        return null;
+    }
+
+    /**
+     * Reads up to MAX_PEEKED_BODY bytes of the body so the filter can look at it, and replays
+     * them (followed by any unread rest) to the rest of the chain.
+     */
+    private static final class PeekedRequest extends HttpServletRequestWrapper {
+        private final byte[] head;
+        private final boolean complete;
+        private final InputStream body;
+
+        private PeekedRequest(HttpServletRequest request, byte[] head, boolean complete) throws IOException {
+            super(request);
+            this.head = head;
+            this.complete = complete;
+            this.body = complete ? new ByteArrayInputStream(head)
+                    : new SequenceInputStream(new ByteArrayInputStream(head), request.getInputStream());
+        }
+
+        static PeekedRequest of(HttpServletRequest request) throws IOException {
+            byte[] head = request.getInputStream().readNBytes(MAX_PEEKED_BODY + 1);
+            return new PeekedRequest(request, head, head.length <= MAX_PEEKED_BODY);
+        }
+
+        JsonNode json(ObjectMapper objectMapper) {
+            if (complete && head.length > 0) {
+                try {
+                    return objectMapper.readTree(head);
+                } catch (IOException e) {
+                    // Not JSON; the controller rejects it
+                }
+            }
+            return objectMapper.createObjectNode();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override public int read() throws IOException { return body.read(); }
+                @Override public int read(byte[] b, int off, int len) throws IOException { return body.read(b, off, len); }
+                @Override public boolean isFinished() {
+                    try {
+                        return body.available() == 0;
+                    } catch (IOException e) {
+                        return true;
+                    }
+                }
+                @Override public boolean isReady() { return true; }
+                @Override public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
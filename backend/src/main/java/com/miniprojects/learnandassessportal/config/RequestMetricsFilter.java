@@ -0,0 +1,71 @@
+package com.miniprojects.learnandassessportal.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many Hibernate statements each request issued, per endpoint
+ * (metric app.http.sql.statements, tagged like http.server.requests), and
+ * reports requests over the SQL budget (see SqlStatementCounter).
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetricsFilter(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        sqlStatementCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.Summary sql = sqlStatementCounter.end();
+            request.setAttribute(SqlStatementCounter.SUMMARY_ATTRIBUTE, sql);
+
+            // Only requests that reached a controller have a URI template; anything else is one bucket
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("app.http.sql.statements")
+                    .description("Hibernate statements per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(sql.statements());
+
+            if (sqlStatementCounter.getMode() != SqlStatementCounter.BudgetMode.OFF
+                    && sqlStatementCounter.isOverBudget(sql)) {
+                Counter.builder("app.http.sql.budget.exceeded")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("{} {} ran {} SQL statements (budget {}){}", request.getMethod(), uri,
+                        sql.statements(), sqlStatementCounter.getMaxStatements(),
+                        sql.hasRepeatedSelects() ? ", repeated selects (likely N+1): " + sql.repeatedSelects() : "");
+            }
+        }
+    }
+}
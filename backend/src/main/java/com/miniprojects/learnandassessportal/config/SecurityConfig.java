@@ -1,15 +1,21 @@
 package com.miniprojects.learnandassessportal.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -22,9 +28,40 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
+    }
+
+    // Actuator endpoints: health is public; metrics and the Prometheus scrape need HTTP Basic
+    // credentials of the metrics user (app.metrics.*). Without a password they stay closed.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder,
+                                                   @Value("${app.metrics.username:prometheus}") String username,
+                                                   @Value("${app.metrics.password:}") String password) throws Exception {
+        InMemoryUserDetailsManager metricsUsers = new InMemoryUserDetailsManager();
+        if (!password.isBlank()) {
+            metricsUsers.createUser(User.withUsername(username)
+                    .password(passwordEncoder.encode(password))
+                    .roles("METRICS")
+                    .build());
+        }
+
+        http
+                .securityMatcher("/actuator/**")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyRequest().hasRole("METRICS")
+                )
+                .userDetailsService(metricsUsers)
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
     }
 
     @Bean
@@ -46,6 +83,16 @@ public class SecurityConfig {
                     .requestMatchers("/api/auth/**", "/error").permitAll()
                     .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
+                        // Score analytics (pass rates, per-question difficulty) are for instructors only
+                        .requestMatchers(HttpMethod.GET, "/api/modules/*/quizzes/analytics",
+                                "/api/modules/*/quizzes/*/analytics").hasRole("INSTRUCTOR")
+
+                        // Import progress and row errors are for the instructor who submitted the import
+                        .requestMatchers("/api/import-jobs/**").hasRole("INSTRUCTOR")
+
+                        // Each randomized attempt holds a server-side session, so only signed-in users start one
+                        .requestMatchers(HttpMethod.GET, "/api/modules/*/quizzes/random").authenticated()
+
                         // Allow PUBLIC viewing of courses (Students browsing)
                         .requestMatchers(HttpMethod.GET, "/api/courses/**", "/api/modules/**").permitAll()
 
@@ -53,8 +100,16 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
 
+                // Missing, expired or revoked tokens get 401, which tells the client to refresh
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
+
                 // 5. Add JWT Filter before UsernamePasswordAuthenticationFilter
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+
+                // 6. Rate limits, after the JWT filter so authenticated clients are limited per user
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -82,8 +137,9 @@ public class SecurityConfig {
         return source;
     }
 
+    // Raising the strength takes effect for existing users at their next login (see AuthService.login)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.miniprojects.learnandassessportal.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares during a request, and enforces a per-request budget.
+ *
+ * Registered as Hibernate's statement inspector (see MetricsConfig); RequestMetricsFilter brackets
+ * each request with begin()/end() and leaves the Summary in the SUMMARY_ATTRIBUTE request
+ * attribute, where the query-count tests read it. Statements outside a request (startup, background jobs) are
+ * not tracked. Statements sent through JdbcTemplate don't pass through Hibernate and aren't counted.
+ *
+ * The same SELECT run repeat-threshold times within one request is reported as a likely N+1.
+ * With app.sql-budget.mode=log, requests over the budget are logged when they finish; with
+ * mode=fail, the statement that crosses the budget or the threshold throws instead (for tests
+ * and local runs).
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    public enum BudgetMode { OFF, LOG, FAIL }
+
+    // Distinct statements remembered per request; more than this is itself a problem
+    private static final int MAX_DISTINCT_STATEMENTS = 256;
+
+    public static final String SUMMARY_ATTRIBUTE = SqlStatementCounter.class.getName() + ".SUMMARY";
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    @Value("${app.sql-budget.mode:log}")
+    private BudgetMode mode = BudgetMode.LOG;
+
+    @Value("${app.sql-budget.max-statements:50}")
+    private int maxStatements = 50;
+
+    @Value("${app.sql-budget.repeat-threshold:10}")
+    private int repeatThreshold = 10;
+
+    /**
+     * What one request ran: the total and every SELECT that was repeated repeat-threshold times or more.
+     */
+    public record Summary(int statements, Map<String, Integer> repeatedSelects) {
+        public boolean hasRepeatedSelects() {
+            return !repeatedSelects.isEmpty();
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements current = CURRENT.get();
+        if (current == null) return sql;
+
+        current.count++;
+        int repeats = current.record(sql);
+        if (mode == BudgetMode.FAIL) {
+            if (current.count > maxStatements) {
+                throw new IllegalStateException("SQL budget exceeded: more than " + maxStatements +
+                        " statements in one request, last: " + sql);
+            }
+            if (repeats == repeatThreshold && isSelect(sql)) {
+                throw new IllegalStateException("Likely N+1: the same SELECT ran " + repeats +
+                        " times in one request: " + sql);
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting for the current thread's request.
+     */
+    public void begin() {
+        CURRENT.set(new RequestStatements());
+    }
+
+    /**
+     * Stops counting and returns what the request ran.
+     */
+    public Summary end() {
+        RequestStatements current = CURRENT.get();
+        CURRENT.remove();
+        return current != null ? current.summary(repeatThreshold) : new Summary(0, Map.of());
+    }
+
+    /**
+     * Statements so far in the current request.
+     */
+    public int getCount() {
+        RequestStatements current = CURRENT.get();
+        return current != null ? current.count : 0;
+    }
+
+    public BudgetMode getMode() { return mode; }
+    public int getMaxStatements() { return maxStatements; }
+
+    public boolean isOverBudget(Summary summary) {
+        return summary.statements() > maxStatements || summary.hasRepeatedSelects();
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    private static final class RequestStatements {
+        int count;
+        final Map<String, Integer> distinct = new HashMap<>();
+
+        int record(String sql) {
+            if (distinct.size() >= MAX_DISTINCT_STATEMENTS && !distinct.containsKey(sql)) return 1;
+            return distinct.merge(sql, 1, Integer::sum);
+        }
+
+        Summary summary(int repeatThreshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            distinct.forEach((sql, n) -> {
+                if (n >= repeatThreshold && isSelect(sql)) repeated.put(sql, n);
+            });
+            return new Summary(count, repeated);
+        }
+    }
+}
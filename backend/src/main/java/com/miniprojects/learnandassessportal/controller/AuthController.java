@@ -17,15 +17,27 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
         User user = authService.register(request);
-        String token = authService.generateTokenForUser(user);
-        return ResponseEntity.ok(new AuthResponse("User registered successfully", user.getRole().name(), token));
+        return ResponseEntity.ok(authService.issueTokens(user, "User registered successfully"));
     }
 
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
         User user = authService.login(request);
-        String token = authService.generateTokenForUser(user);
-        return ResponseEntity.ok(new AuthResponse("Login Successful", user.getRole().name(), token));
+        return ResponseEntity.ok(authService.issueTokens(user, "Login Successful"));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest request,
+                                       @RequestHeader(value = "Authorization", required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        authService.logout(request != null ? request.getRefreshToken() : null, accessToken);
+        return ResponseEntity.noContent().build();
     }
     @PostMapping("/google")
     public ResponseEntity<AuthResponse> googleLogin(@RequestBody GoogleLoginRequest request) {
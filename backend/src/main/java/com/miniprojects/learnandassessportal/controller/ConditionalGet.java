@@ -0,0 +1,45 @@
+package com.miniprojects.learnandassessportal.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Answers a GET from its ETag (see ContentVersions): a matching If-None-Match gets a
+ * 304 before the body is loaded or serialized, anything else gets the body with the
+ * ETag and Cache-Control headers.
+ */
+@Component
+public class ConditionalGet {
+
+    // How long clients may reuse a response without revalidating; 0 = always revalidate
+    @Value("${app.http-cache.max-age-seconds:0}")
+    private long maxAgeSeconds;
+
+    public <T> ResponseEntity<T> respond(WebRequest request, String eTag, Supplier<T> body) {
+        CacheControl cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).mustRevalidate();
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(body.get());
+    }
+
+    /**
+     * For an entity whose ETag is its parent's: a conditional request runs checkOwner first,
+     * so a 304 is never answered for an entity addressed under the wrong parent. The body
+     * supplier must check the loaded entity itself.
+     */
+    public <T> ResponseEntity<T> respond(WebRequest request, String eTag, Runnable checkOwner, Supplier<T> body) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            checkOwner.run();
+        }
+        return respond(request, eTag, body);
+    }
+}
@@ -1,14 +1,21 @@
 package com.miniprojects.learnandassessportal.controller;
 
+import com.miniprojects.learnandassessportal.dto.BulkUploadResult;
+import com.miniprojects.learnandassessportal.dto.CourseCatalogPage;
+import com.miniprojects.learnandassessportal.dto.CourseOutlineResponse;
+import com.miniprojects.learnandassessportal.dto.ImportJobResponse;
 import com.miniprojects.learnandassessportal.model.Course;
 import com.miniprojects.learnandassessportal.service.BulkUploadService;
+import com.miniprojects.learnandassessportal.service.ContentVersions;
 import com.miniprojects.learnandassessportal.service.CourseService;
+import com.miniprojects.learnandassessportal.service.ImportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -20,14 +27,26 @@ public class CourseController {
 
     @Autowired private CourseService courseService;
     @Autowired private BulkUploadService bulkUploadService;
+    @Autowired private ImportJobService importJobService;
+    @Autowired private ContentVersions contentVersions;
+    @Autowired private ConditionalGet conditionalGet;
 
+    // CSV import runs as a background job by default; poll GET /api/import-jobs/{jobId} for progress.
+    // async=false keeps the old single-transaction import on the request thread.
     @PostMapping("/{courseId}/bulk-upload")
     public ResponseEntity<?> bulkUploadContent(
             @PathVariable Integer courseId,
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "async", defaultValue = "true") boolean async,
+            @AuthenticationPrincipal UserDetails userDetails) {
 
-        bulkUploadService.processCsvBulkUpload(courseId, file);
-        return ResponseEntity.ok("Bulk upload successful");
+        if (async) {
+            ImportJobResponse job = importJobService.submitCsvImport(courseId, file, userDetails.getUsername());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        }
+
+        BulkUploadResult result = bulkUploadService.processCsvBulkUpload(courseId, file);
+        return ResponseEntity.ok(result);
     }
     // 1. Create a New Course (Instructor Only)
     @PostMapping
@@ -43,8 +62,20 @@ public class CourseController {
 
     // 2. Get All Courses (For Students)
     @GetMapping
-    public List<Course> getAllCourses() {
-        return courseService.getAllCourses();
+    public ResponseEntity<List<Course>> getAllCourses(WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.catalogETag(), courseService::getAllCourses);
+    }
+
+    // Paged catalog cards for the student course list. Pass the returned nextCursor as
+    // ?cursor= to get the following page; category narrows to one category.
+    @GetMapping("/catalog")
+    public ResponseEntity<CourseCatalogPage> getCatalog(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "12") int limit,
+            WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.catalogETag(),
+                () -> courseService.getCatalogPage(category, cursor, limit));
     }
 
     // 3. Get My Courses (For Instructor Dashboard)
@@ -58,8 +89,19 @@ public class CourseController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Course> getCourseById(@PathVariable Integer id) {
-        return ResponseEntity.ok(courseService.getCourseById(id));
+    public ResponseEntity<Course> getCourseById(@PathVariable Integer id, WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.courseETag(id), () -> courseService.getCourseById(id));
+    }
+
+    // Course player tree: modules and lessons in order, in a fixed number of queries.
+    // Lesson text bodies are left out unless includeText=true.
+    @GetMapping("/{id}/outline")
+    public ResponseEntity<CourseOutlineResponse> getCourseOutline(
+            @PathVariable Integer id,
+            @RequestParam(value = "includeText", defaultValue = "false") boolean includeText,
+            WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.courseETag(id),
+                () -> courseService.getCourseOutline(id, includeText));
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,24 @@
+package com.miniprojects.learnandassessportal.controller;
+
+import com.miniprojects.learnandassessportal.dto.ImportJobResponse;
+import com.miniprojects.learnandassessportal.service.ImportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/import-jobs")
+public class ImportJobController {
+
+    @Autowired private ImportJobService importJobService;
+
+    // Progress of a CSV bulk import: rows processed, throughput, ETA and per-row errors.
+    // Only the instructor who submitted the import can see it.
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable String jobId,
+                                                          @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(importJobService.getJob(jobId, userDetails.getUsername()));
+    }
+}
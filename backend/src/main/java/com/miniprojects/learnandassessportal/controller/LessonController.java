@@ -1,10 +1,12 @@
 package com.miniprojects.learnandassessportal.controller;
 
 import com.miniprojects.learnandassessportal.model.Lesson;
+import com.miniprojects.learnandassessportal.service.ContentVersions;
 import com.miniprojects.learnandassessportal.service.LessonService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -13,6 +15,8 @@ import java.util.List;
 public class LessonController {
 
     @Autowired private LessonService lessonService;
+    @Autowired private ContentVersions contentVersions;
+    @Autowired private ConditionalGet conditionalGet;
 
     @PostMapping
     public ResponseEntity<Lesson> addLesson(
@@ -27,8 +31,17 @@ public class LessonController {
         return ResponseEntity.ok(newLesson);
     }
     @GetMapping
-    public ResponseEntity<List<Lesson>> getLessons(@PathVariable Integer moduleId) {
-        return ResponseEntity.ok(lessonService.getLessonsByModule(moduleId));
+    public ResponseEntity<List<Lesson>> getLessons(@PathVariable Integer moduleId, WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.moduleETag(moduleId),
+                () -> lessonService.getLessonsByModule(moduleId));
+    }
+
+    @GetMapping("/{lessonId}")
+    public ResponseEntity<Lesson> getLesson(@PathVariable Integer moduleId, @PathVariable Long lessonId,
+                                            WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.moduleETag(moduleId),
+                () -> lessonService.requireLessonInModule(moduleId, lessonId),
+                () -> lessonService.getLessonInModule(moduleId, lessonId));
     }
 
     @PutMapping("/{lessonId}")
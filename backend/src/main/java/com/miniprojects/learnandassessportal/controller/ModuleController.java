@@ -2,10 +2,12 @@ package com.miniprojects.learnandassessportal.controller;
 
 import com.miniprojects.learnandassessportal.dto.ModuleRequest;
 import com.miniprojects.learnandassessportal.model.Module;
+import com.miniprojects.learnandassessportal.service.ContentVersions;
 import com.miniprojects.learnandassessportal.service.ModuleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,6 +18,12 @@ public class ModuleController {
     @Autowired
     private ModuleService moduleService;
 
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private ConditionalGet conditionalGet;
+
     // Create a new module for a course
     @PostMapping("/courses/{courseId}/modules")
     public ResponseEntity<Module> createModule(
@@ -27,16 +35,16 @@ public class ModuleController {
 
     // Get all modules for a course
     @GetMapping("/courses/{courseId}/modules")
-    public ResponseEntity<List<Module>> getModulesByCourse(@PathVariable Integer courseId) {
-        List<Module> modules = moduleService.getModulesByCourseId(courseId);
-        return ResponseEntity.ok(modules);
+    public ResponseEntity<List<Module>> getModulesByCourse(@PathVariable Integer courseId, WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.courseETag(courseId),
+                () -> moduleService.getModulesByCourseId(courseId));
     }
 
     // Get a single module by ID
     @GetMapping("/modules/{moduleId}")
-    public ResponseEntity<Module> getModuleById(@PathVariable Integer moduleId) {
-        Module module = moduleService.getModuleById(moduleId);
-        return ResponseEntity.ok(module);
+    public ResponseEntity<Module> getModuleById(@PathVariable Integer moduleId, WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.moduleETag(moduleId),
+                () -> moduleService.getModuleById(moduleId));
     }
 
     // Update a module
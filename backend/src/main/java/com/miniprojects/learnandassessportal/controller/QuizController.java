@@ -1,15 +1,26 @@
 package com.miniprojects.learnandassessportal.controller;
 
+import com.miniprojects.learnandassessportal.dto.QuizAnalyticsResponse;
 import com.miniprojects.learnandassessportal.dto.QuizResultResponse;
 import com.miniprojects.learnandassessportal.dto.QuizSubmissionRequest;
+import com.miniprojects.learnandassessportal.dto.RandomQuizResponse;
 import com.miniprojects.learnandassessportal.model.Question;
 import com.miniprojects.learnandassessportal.model.Quiz;
+import com.miniprojects.learnandassessportal.service.ContentVersions;
+import com.miniprojects.learnandassessportal.service.QuizAnalyticsService;
+import com.miniprojects.learnandassessportal.service.QuizAttemptRecorder;
+import com.miniprojects.learnandassessportal.service.QuizIngestionService;
 import com.miniprojects.learnandassessportal.service.QuizService;
 import com.miniprojects.learnandassessportal.service.QuizUploadService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Map;
@@ -24,10 +35,29 @@ public class QuizController {
     @Autowired
     private QuizUploadService quizUploadService;
 
+    @Autowired
+    private QuizIngestionService quizIngestionService;
+
+    @Autowired
+    private QuizAttemptRecorder quizAttemptRecorder;
+
+    @Autowired
+    private QuizAnalyticsService quizAnalyticsService;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private ConditionalGet conditionalGet;
+
+    @Value("${quiz.ingestion.stream-threshold-kb:1024}")
+    private long streamThresholdKb;
+
     /**
      * Bulk upload quiz questions from a PDF or DOCX file.
      * Parses questions, options, and correct answers from the file
      * and saves them as a quiz mapped to the given module.
+     * Files above quiz.ingestion.stream-threshold-kb are ingested in streaming mode.
      */
     @PostMapping("/upload")
     public ResponseEntity<?> uploadQuizFile(
@@ -36,6 +66,17 @@ public class QuizController {
             @RequestParam(value = "title", defaultValue = "Module Quiz") String title,
             @RequestParam(value = "description", defaultValue = "Uploaded Quiz") String description) {
         try {
+            if (file.getSize() >= streamThresholdKb * 1024) {
+                // Large banks are parsed and inserted as they stream in; the questions aren't echoed back
+                QuizIngestionService.IngestionResult result =
+                        quizIngestionService.ingest(moduleId, file, title, description);
+                return ResponseEntity.ok(Map.of(
+                        "quiz", result.quiz(),
+                        "questionsCount", result.questionsCount(),
+                        "message", "Successfully uploaded " + result.questionsCount() + " questions."
+                ));
+            }
+
             List<Question> questions = quizUploadService.processUploadedFile(file);
 
             Quiz quiz = new Quiz();
@@ -93,18 +134,20 @@ public class QuizController {
      * Get all saved quizzes for a module (for instructor management).
      */
     @GetMapping
-    public ResponseEntity<List<Quiz>> getQuizzesByModule(@PathVariable Integer moduleId) {
-        List<Quiz> quizzes = quizService.getQuizzesByModule(moduleId);
-        return ResponseEntity.ok(quizzes);
+    public ResponseEntity<List<Quiz>> getQuizzesByModule(@PathVariable Integer moduleId, WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.moduleETag(moduleId),
+                () -> quizService.getQuizzesByModule(moduleId));
     }
 
     /**
      * Get a single quiz by ID.
      */
     @GetMapping("/{quizId}")
-    public ResponseEntity<Quiz> getQuizById(@PathVariable Integer moduleId, @PathVariable Long quizId) {
-        Quiz quiz = quizService.getQuizById(quizId);
-        return ResponseEntity.ok(quiz);
+    public ResponseEntity<Quiz> getQuizById(@PathVariable Integer moduleId, @PathVariable Long quizId,
+                                            WebRequest request) {
+        return conditionalGet.respond(request, contentVersions.moduleETag(moduleId),
+                () -> quizService.requireQuizInModule(moduleId, quizId),
+                () -> quizService.getQuizInModule(moduleId, quizId));
     }
 
     /**
@@ -115,15 +158,19 @@ public class QuizController {
     @GetMapping("/random")
     public ResponseEntity<?> getRandomizedQuiz(
             @PathVariable Integer moduleId,
-            @RequestParam(value = "numQuestions", defaultValue = "10") int numQuestions) {
+            @RequestParam(value = "numQuestions", defaultValue = "10") int numQuestions,
+            @AuthenticationPrincipal UserDetails userDetails) {
         try {
-            Quiz randomizedQuiz = quizService.getRandomizedQuizForModule(moduleId, numQuestions);
+            RandomQuizResponse randomizedQuiz = quizService.getRandomizedQuizForModule(moduleId, numQuestions,
+                    userDetails.getUsername());
             if (randomizedQuiz == null) {
                 return ResponseEntity.ok(Map.of(
                         "error", "No quiz questions available for this module."
                 ));
             }
             return ResponseEntity.ok(randomizedQuiz);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of(
                     "error", "Failed to generate randomized quiz: " + e.getMessage()));
@@ -132,16 +179,43 @@ public class QuizController {
 
     /**
      * Student submits answers — server evaluates and returns score.
+     * Randomized attempts carry their attemptToken and are scored from the attempt session.
      */
     @PostMapping("/{quizId}/submit")
     public ResponseEntity<QuizResultResponse> submitQuiz(
             @PathVariable Integer moduleId,
             @PathVariable Long quizId,
-            @RequestBody QuizSubmissionRequest submission) {
-        QuizResultResponse result = quizService.evaluateQuiz(quizId, submission);
+            @RequestBody QuizSubmissionRequest submission,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        QuizResultResponse result = quizService.evaluateQuiz(quizId, submission,
+                userDetails != null ? userDetails.getUsername() : null);
+
+        // Recorded asynchronously; the response doesn't wait for the database. Randomized attempts
+        // are drawn from the whole module, so they are not an attempt at quizId and only count
+        // towards the module analytics.
+        if (userDetails != null && submission.getAttemptToken() == null) {
+            quizAttemptRecorder.record(quizId, userDetails.getUsername(), result);
+        }
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Score analytics of the whole module: attempts, pass rate, averages and per-question difficulty.
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<QuizAnalyticsResponse> getModuleAnalytics(@PathVariable Integer moduleId) {
+        return ResponseEntity.ok(quizAnalyticsService.getModuleAnalytics(moduleId));
+    }
+
+    /**
+     * Score analytics of a single quiz; 404 if the quiz isn't in the module.
+     */
+    @GetMapping("/{quizId}/analytics")
+    public ResponseEntity<QuizAnalyticsResponse> getQuizAnalytics(@PathVariable Integer moduleId, @PathVariable Long quizId) {
+        quizService.requireQuizInModule(moduleId, quizId);
+        return ResponseEntity.ok(quizAnalyticsService.getQuizAnalytics(quizId));
+    }
+
     /**
      * Delete a quiz.
      */
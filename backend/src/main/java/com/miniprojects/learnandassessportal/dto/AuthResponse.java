@@ -11,4 +11,7 @@ public class AuthResponse {
     private String message;
     private String role;
     private String token;
+    private String refreshToken;
+    // Lifetime of token, in seconds
+    private long expiresIn;
 }
@@ -0,0 +1,18 @@
+package com.miniprojects.learnandassessportal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUploadResult {
+    private String message;
+    private long rowsProcessed;
+    private long rowsFailed;
+    private int modulesCreated;
+    private long lessonsCreated;
+    private long elapsedMs;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,10 @@
+package com.miniprojects.learnandassessportal.dto;
+
+import java.util.List;
+
+/**
+ * One page of the course catalog. nextCursor is passed back as ?cursor= for the
+ * following page and is null on the last page.
+ */
+public record CourseCatalogPage(List<CourseDTO> items, String nextCursor) {
+}
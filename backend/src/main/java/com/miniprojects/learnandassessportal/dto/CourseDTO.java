@@ -1,4 +1,56 @@
 package com.miniprojects.learnandassessportal.dto;
 
+import java.time.LocalDateTime;
+
+/**
+ * Catalog card of a course. Selected directly by CourseRepository's catalog queries,
+ * so neither the full TEXT description nor the instructor entity is ever loaded.
+ */
 public class CourseDTO {
+
+    // Characters of the description shown on a catalog card
+    public static final int SUMMARY_LENGTH = 300;
+
+    private Integer courseId;
+    private String title;
+    private String summary;
+    private String category;
+    private String thumbnail;
+    private String instructorName;
+    private LocalDateTime createdAt;
+
+    public CourseDTO() {}
+
+    public CourseDTO(Integer courseId, String title, String summary, String category,
+                     String thumbnail, String instructorName, LocalDateTime createdAt) {
+        this.courseId = courseId;
+        this.title = title;
+        this.summary = summary;
+        this.category = category;
+        this.thumbnail = thumbnail;
+        this.instructorName = instructorName;
+        this.createdAt = createdAt;
+    }
+
+    // --- Getters and Setters ---
+    public Integer getCourseId() { return courseId; }
+    public void setCourseId(Integer courseId) { this.courseId = courseId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getSummary() { return summary; }
+    public void setSummary(String summary) { this.summary = summary; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getThumbnail() { return thumbnail; }
+    public void setThumbnail(String thumbnail) { this.thumbnail = thumbnail; }
+
+    public String getInstructorName() { return instructorName; }
+    public void setInstructorName(String instructorName) { this.instructorName = instructorName; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
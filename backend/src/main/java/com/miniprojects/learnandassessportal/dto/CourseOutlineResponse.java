@@ -0,0 +1,35 @@
+package com.miniprojects.learnandassessportal.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * A course with its modules and lessons, ordered by moduleOrder and lessonOrder.
+ * Built from projection rows, never from managed entities. Lesson textContent is
+ * only present when the outline was requested with includeText=true.
+ */
+public record CourseOutlineResponse(Integer courseId,
+                                    String title,
+                                    String description,
+                                    String category,
+                                    String thumbnail,
+                                    String instructorName,
+                                    List<ModuleOutline> modules) {
+
+    public record ModuleOutline(Integer moduleId,
+                                String title,
+                                Integer moduleOrder,
+                                List<LessonOutline> lessons) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record LessonOutline(Long lessonId,
+                                String title,
+                                String contentType,
+                                String videoPath,
+                                String pdfPath,
+                                Integer lessonOrder,
+                                String textContent) {
+    }
+}
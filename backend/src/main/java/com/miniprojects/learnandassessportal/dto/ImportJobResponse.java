@@ -0,0 +1,36 @@
+package com.miniprojects.learnandassessportal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    private String jobId;
+    private Integer courseId;
+    private String status;          // QUEUED, RUNNING, COMPLETED, FAILED
+    private long estimatedTotalRows; // from a quick scan of the file; rowsProcessed is exact
+    private long rowsProcessed;
+    private long rowsFailed;
+    private long lessonsCreated;
+    private int modulesCreated;
+    private double rowsPerSecond;
+    private Long etaSeconds;        // estimate; null until throughput is known
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -0,0 +1,76 @@
+package com.miniprojects.learnandassessportal.dto;
+
+import java.util.List;
+
+/**
+ * Score aggregates of a quiz or a module for the instructor dashboard.
+ */
+public class QuizAnalyticsResponse {
+
+    private long attempts;
+    private long passes;
+    private double passRate;
+    private double averagePercentage;
+    private double averageScore;
+    private List<QuestionDifficulty> questions;
+
+    public QuizAnalyticsResponse() {}
+
+    public QuizAnalyticsResponse(long attempts, long passes, double passRate, double averagePercentage,
+                                 double averageScore, List<QuestionDifficulty> questions) {
+        this.attempts = attempts;
+        this.passes = passes;
+        this.passRate = passRate;
+        this.averagePercentage = averagePercentage;
+        this.averageScore = averageScore;
+        this.questions = questions;
+    }
+
+    // --- Getters and Setters ---
+    public long getAttempts() { return attempts; }
+    public void setAttempts(long attempts) { this.attempts = attempts; }
+
+    public long getPasses() { return passes; }
+    public void setPasses(long passes) { this.passes = passes; }
+
+    public double getPassRate() { return passRate; }
+    public void setPassRate(double passRate) { this.passRate = passRate; }
+
+    public double getAveragePercentage() { return averagePercentage; }
+    public void setAveragePercentage(double averagePercentage) { this.averagePercentage = averagePercentage; }
+
+    public double getAverageScore() { return averageScore; }
+    public void setAverageScore(double averageScore) { this.averageScore = averageScore; }
+
+    public List<QuestionDifficulty> getQuestions() { return questions; }
+    public void setQuestions(List<QuestionDifficulty> questions) { this.questions = questions; }
+
+    // --- Inner class for per-question difficulty ---
+    public static class QuestionDifficulty {
+        private Long questionId;
+        private long correctCount;
+        private long incorrectCount;
+        private double correctRate;
+
+        public QuestionDifficulty() {}
+
+        public QuestionDifficulty(Long questionId, long correctCount, long incorrectCount, double correctRate) {
+            this.questionId = questionId;
+            this.correctCount = correctCount;
+            this.incorrectCount = incorrectCount;
+            this.correctRate = correctRate;
+        }
+
+        public Long getQuestionId() { return questionId; }
+        public void setQuestionId(Long questionId) { this.questionId = questionId; }
+
+        public long getCorrectCount() { return correctCount; }
+        public void setCorrectCount(long correctCount) { this.correctCount = correctCount; }
+
+        public long getIncorrectCount() { return incorrectCount; }
+        public void setIncorrectCount(long incorrectCount) { this.incorrectCount = incorrectCount; }
+
+        public double getCorrectRate() { return correctRate; }
+        public void setCorrectRate(double correctRate) { this.correctRate = correctRate; }
+    }
+}
@@ -7,6 +7,9 @@ public class QuizSubmissionRequest {
     // Map of questionId -> selected option (e.g., "A", "B", "C", "D")
     private Map<Long, String> answers;
 
+    // Token returned with a randomized quiz; when present the attempt is scored from its session
+    private String attemptToken;
+
     public QuizSubmissionRequest() {}
 
     public QuizSubmissionRequest(Map<Long, String> answers) {
@@ -20,4 +23,12 @@ public class QuizSubmissionRequest {
     public void setAnswers(Map<Long, String> answers) {
         this.answers = answers;
     }
+
+    public String getAttemptToken() {
+        return attemptToken;
+    }
+
+    public void setAttemptToken(String attemptToken) {
+        this.attemptToken = attemptToken;
+    }
 }
@@ -0,0 +1,42 @@
+package com.miniprojects.learnandassessportal.dto;
+
+import java.util.List;
+
+/**
+ * A randomized quiz handed to a student. The attemptToken must be sent back
+ * with the submission so the server can score it from the attempt session.
+ */
+public class RandomQuizResponse {
+
+    private Long quizId;
+    private String title;
+    private String description;
+    private String attemptToken;
+    private List<StudentQuestionView> questions;
+
+    public RandomQuizResponse() {}
+
+    public RandomQuizResponse(Long quizId, String title, String description, String attemptToken, List<StudentQuestionView> questions) {
+        this.quizId = quizId;
+        this.title = title;
+        this.description = description;
+        this.attemptToken = attemptToken;
+        this.questions = questions;
+    }
+
+    // --- Getters and Setters ---
+    public Long getQuizId() { return quizId; }
+    public void setQuizId(Long quizId) { this.quizId = quizId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getAttemptToken() { return attemptToken; }
+    public void setAttemptToken(String attemptToken) { this.attemptToken = attemptToken; }
+
+    public List<StudentQuestionView> getQuestions() { return questions; }
+    public void setQuestions(List<StudentQuestionView> questions) { this.questions = questions; }
+}
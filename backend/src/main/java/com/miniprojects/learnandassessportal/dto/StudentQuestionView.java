@@ -0,0 +1,15 @@
+package com.miniprojects.learnandassessportal.dto;
+
+/**
+ * Read-only question as shown to a student in a randomized quiz.
+ * Options are already in their shuffled order. The correct option is deliberately
+ * left out: the attempt is graded on the server from its attempt session.
+ * Built from the cached question pool, never from a managed Question entity.
+ */
+public record StudentQuestionView(Long questionId,
+                                  String questionText,
+                                  String optionA,
+                                  String optionB,
+                                  String optionC,
+                                  String optionD) {
+}
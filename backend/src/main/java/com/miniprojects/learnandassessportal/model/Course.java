@@ -5,7 +5,11 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Courses")
+@Table(name = "Courses", indexes = {
+        // Keyset pagination of the catalog, with and without a category filter
+        @Index(name = "idx_courses_created", columnList = "createdAt, courseId"),
+        @Index(name = "idx_courses_category_created", columnList = "category, createdAt, courseId")
+})
 @Data
 public class Course {
     @Id
@@ -26,5 +30,13 @@ public class Course {
     @JoinColumn(name = "instructor_id", nullable = false)
     private User instructor;
 
+    // Part of the catalog's keyset cursor, so never null; existing rows are backfilled at startup
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    @PrePersist
+    void defaultCreatedAt() {
+        // Courses are created from request JSON, which may carry "createdAt": null
+        if (createdAt == null) createdAt = LocalDateTime.now();
+    }
 }
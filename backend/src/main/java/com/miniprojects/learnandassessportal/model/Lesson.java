@@ -26,7 +26,7 @@ public class Lesson {
 
     private Integer lessonOrder;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "module_id", nullable = false)
     @JsonIgnore
     private Module module;
@@ -22,7 +22,7 @@ public class Question {
     @Column(nullable = false)
     private String correctOption; // "A", "B", "C", or "D"
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "quiz_id", nullable = false)
     @JsonIgnore
     private Quiz quiz;
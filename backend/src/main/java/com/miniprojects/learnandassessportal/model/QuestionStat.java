@@ -0,0 +1,19 @@
+package com.miniprojects.learnandassessportal.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Checkpointed answer counts of one question, used for per-question difficulty.
+ */
+@Entity
+@Table(name = "QuestionStats")
+@Data
+public class QuestionStat {
+
+    @Id
+    private Long questionId;
+
+    private long correctCount;
+    private long incorrectCount;
+}
@@ -21,7 +21,7 @@ public class Quiz {
     private String description;
 
     // Link: Many Quizzes can belong to One Module
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "module_id", nullable = false)
     @JsonIgnore // Prevents infinite JSON loops
     private Module module;
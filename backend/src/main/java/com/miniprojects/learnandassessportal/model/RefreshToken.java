@@ -0,0 +1,41 @@
+package com.miniprojects.learnandassessportal.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token, stored as the SHA-256 of the value handed to the client.
+ *
+ * Every refresh replaces the token with a new one of the same family; presenting a token
+ * that was already used revokes the whole family (the token was likely stolen).
+ */
+@Entity
+@Table(name = "RefreshTokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "familyId")
+})
+@Data
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private boolean revoked;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,22 @@
+package com.miniprojects.learnandassessportal.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * An access token (by its jti) revoked before its expiry; kept until it would have expired.
+ */
+@Entity
+@Table(name = "RevokedTokens")
+@Data
+public class RevokedToken {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
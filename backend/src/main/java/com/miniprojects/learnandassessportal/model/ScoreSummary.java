@@ -0,0 +1,27 @@
+package com.miniprojects.learnandassessportal.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpointed score aggregate of one quiz or one module (see QuizAnalyticsService).
+ */
+@Entity
+@Table(name = "ScoreSummaries")
+@Data
+public class ScoreSummary {
+
+    // "QUIZ:<quizId>" or "MODULE:<moduleId>"
+    @Id
+    private String summaryKey;
+
+    private long attempts;
+    private long passes;
+    private long scoreSum;          // correct answers over all attempts
+    private long questionSum;       // questions answered over all attempts
+    private long percentageSum;     // sum of (rounded) attempt percentages
+
+    private LocalDateTime updatedAt;
+}
@@ -1,12 +1,65 @@
 package com.miniprojects.learnandassessportal.repository;
 
+import com.miniprojects.learnandassessportal.dto.CourseDTO;
 import com.miniprojects.learnandassessportal.model.Course;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface CourseRepository extends JpaRepository<Course, Integer> {
     // For Instructor Dashboard: "Show only MY courses"
+    @EntityGraph(attributePaths = "instructor")
     List<Course> findByInstructor_Email(String email);
 
-    // For Student Dashboard: "Show all courses" (already built-in as findAll)
+    // For Student Dashboard: "Show all courses"; instructors joined instead of one select per instructor
+    @Override
+    @EntityGraph(attributePaths = "instructor")
+    List<Course> findAll();
+
+    // Course catalog, newest first, seeking past (createdAt, courseId) instead of using an offset.
+    // Backed by idx_courses_created / idx_courses_category_created.
+    String CATALOG_SELECT = "select new com.miniprojects.learnandassessportal.dto.CourseDTO(" +
+            "c.courseId, c.title, substring(c.description, 1, " + CourseDTO.SUMMARY_LENGTH + "), " +
+            "c.category, c.thumbnail, i.fullName, c.createdAt) from Course c join c.instructor i ";
+
+    @Query(CATALOG_SELECT +
+           "where (:category is null or c.category = :category) " +
+           "order by c.createdAt desc, c.courseId desc")
+    List<CourseDTO> findCatalogFirstPage(@Param("category") String category, Limit limit);
+
+    @Query(CATALOG_SELECT +
+           "where (:category is null or c.category = :category) " +
+           "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.courseId < :courseId)) " +
+           "order by c.createdAt desc, c.courseId desc")
+    List<CourseDTO> findCatalogPageAfter(@Param("category") String category,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("courseId") Integer courseId,
+                                         Limit limit);
+
+    // Rows created before createdAt was required; they sort as the oldest courses
+    @Modifying
+    @Query("update Course c set c.createdAt = :createdAt where c.createdAt is null")
+    int backfillCreatedAt(@Param("createdAt") LocalDateTime createdAt);
+
+    // Course header of the outline endpoint: the course columns plus the instructor's name
+    @Query("select c.courseId as courseId, c.title as title, c.description as description, " +
+           "c.category as category, c.thumbnail as thumbnail, i.fullName as instructorName " +
+           "from Course c join c.instructor i where c.courseId = :courseId")
+    Optional<OutlineHeader> findOutlineHeader(@Param("courseId") Integer courseId);
+
+    interface OutlineHeader {
+        Integer getCourseId();
+        String getTitle();
+        String getDescription();
+        String getCategory();
+        String getThumbnail();
+        String getInstructorName();
+    }
 }
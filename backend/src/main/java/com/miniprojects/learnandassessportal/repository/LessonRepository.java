@@ -2,8 +2,48 @@ package com.miniprojects.learnandassessportal.repository;
 
 import com.miniprojects.learnandassessportal.model.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.Optional;
 
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
     List<Lesson> findByModule_ModuleIdOrderByLessonOrderAsc(Integer moduleId);
+
+    @Query("select l.module.moduleId from Lesson l where l.lessonId = :lessonId")
+    Optional<Integer> findModuleIdByLessonId(@Param("lessonId") Long lessonId);
+
+    // [moduleId, MAX(lessonOrder)] for every module of a course that has lessons
+    @Query("select l.module.moduleId, max(l.lessonOrder) from Lesson l " +
+           "where l.module.course.courseId = :courseId group by l.module.moduleId")
+    List<Object[]> findMaxLessonOrderByCourseId(@Param("courseId") Integer courseId);
+
+    // Every lesson of a course as flat rows, in outline order; textContent is left out
+    @Query("select l.lessonId as lessonId, l.module.moduleId as moduleId, l.title as title, " +
+           "l.contentType as contentType, l.videoPath as videoPath, l.pdfPath as pdfPath, " +
+           "l.lessonOrder as lessonOrder " +
+           "from Lesson l where l.module.course.courseId = :courseId order by l.lessonOrder, l.lessonId")
+    List<OutlineRow> findOutlineRowsByCourseId(@Param("courseId") Integer courseId);
+
+    // Same rows with the text body, for outlines requested with includeText
+    @Query("select l.lessonId as lessonId, l.module.moduleId as moduleId, l.title as title, " +
+           "l.contentType as contentType, l.videoPath as videoPath, l.pdfPath as pdfPath, " +
+           "l.lessonOrder as lessonOrder, l.textContent as textContent " +
+           "from Lesson l where l.module.course.courseId = :courseId order by l.lessonOrder, l.lessonId")
+    List<OutlineTextRow> findOutlineRowsWithTextByCourseId(@Param("courseId") Integer courseId);
+
+    interface OutlineRow {
+        Long getLessonId();
+        Integer getModuleId();
+        String getTitle();
+        Lesson.ContentType getContentType();
+        String getVideoPath();
+        String getPdfPath();
+        Integer getLessonOrder();
+    }
+
+    interface OutlineTextRow extends OutlineRow {
+        String getTextContent();
+    }
 }
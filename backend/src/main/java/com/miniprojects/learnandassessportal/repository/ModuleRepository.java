@@ -1,10 +1,32 @@
 package com.miniprojects.learnandassessportal.repository;
 
 import com.miniprojects.learnandassessportal.model.Module;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ModuleRepository extends JpaRepository<Module, Integer> {
     List<Module> findByCourse_CourseIdOrderByModuleOrderAsc(Integer courseId);
+
+    // Module listing with lessons in the same query (the lessons are part of the JSON)
+    @EntityGraph(attributePaths = "lessons")
+    List<Module> findWithLessonsByCourse_CourseIdOrderByModuleOrderAsc(Integer courseId);
+
+    // Modules of a course as flat rows, in outline order
+    @Query("select m.moduleId as moduleId, m.title as title, m.moduleOrder as moduleOrder " +
+           "from Module m where m.course.courseId = :courseId order by m.moduleOrder, m.moduleId")
+    List<OutlineRow> findOutlineRowsByCourseId(@Param("courseId") Integer courseId);
+
+    @Query("select m.course.courseId from Module m where m.moduleId = :moduleId")
+    Optional<Integer> findCourseIdByModuleId(@Param("moduleId") Integer moduleId);
+
+    interface OutlineRow {
+        Integer getModuleId();
+        String getTitle();
+        Integer getModuleOrder();
+    }
 }
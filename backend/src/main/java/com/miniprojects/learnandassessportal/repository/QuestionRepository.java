@@ -0,0 +1,30 @@
+package com.miniprojects.learnandassessportal.repository;
+
+import com.miniprojects.learnandassessportal.model.Question;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface QuestionRepository extends JpaRepository<Question, Long> {
+
+    // Whole question pool of a module as flat rows, in a single query
+    // (no Quiz/Module/Course entities are loaded along the way).
+    @Query("select q.questionId as questionId, q.quiz.quizId as quizId, q.questionText as questionText, " +
+           "q.optionA as optionA, q.optionB as optionB, q.optionC as optionC, q.optionD as optionD, " +
+           "q.correctOption as correctOption " +
+           "from Question q where q.quiz.module.moduleId = :moduleId order by q.questionId")
+    List<PoolRow> findPoolRowsByModuleId(@Param("moduleId") Integer moduleId);
+
+    interface PoolRow {
+        Long getQuestionId();
+        Long getQuizId();
+        String getQuestionText();
+        String getOptionA();
+        String getOptionB();
+        String getOptionC();
+        String getOptionD();
+        String getCorrectOption();
+    }
+}
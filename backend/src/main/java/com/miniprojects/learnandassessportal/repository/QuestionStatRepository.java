@@ -0,0 +1,7 @@
+package com.miniprojects.learnandassessportal.repository;
+
+import com.miniprojects.learnandassessportal.model.QuestionStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface QuestionStatRepository extends JpaRepository<QuestionStat, Long> {
+}
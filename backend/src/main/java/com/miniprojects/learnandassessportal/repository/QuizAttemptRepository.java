@@ -0,0 +1,20 @@
+package com.miniprojects.learnandassessportal.repository;
+
+import com.miniprojects.learnandassessportal.model.QuizAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+// Attempts are inserted by QuizAttemptRecorder; this is only used to clean them up with their quiz
+public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
+
+    @Modifying
+    @Query("delete from QuizAttempt a where a.quiz.quizId = :quizId")
+    int deleteByQuizId(@Param("quizId") Long quizId);
+
+    @Modifying
+    @Query("delete from QuizAttempt a where a.quiz.quizId in " +
+            "(select q.quizId from Quiz q where q.module.moduleId = :moduleId)")
+    int deleteByModuleId(@Param("moduleId") Integer moduleId);
+}
@@ -1,10 +1,19 @@
 package com.miniprojects.learnandassessportal.repository;
 
 import com.miniprojects.learnandassessportal.model.Quiz;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
+    // Questions are part of the JSON, so load them with the quizzes
+    @EntityGraph(attributePaths = "questions")
     List<Quiz> findByModule_ModuleId(Integer moduleId);
+
+    @Query("select q.module.moduleId from Quiz q where q.quizId = :quizId")
+    Optional<Integer> findModuleIdByQuizId(@Param("quizId") Long quizId);
 }
@@ -0,0 +1,7 @@
+package com.miniprojects.learnandassessportal.repository;
+
+import com.miniprojects.learnandassessportal.model.ScoreSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ScoreSummaryRepository extends JpaRepository<ScoreSummary, String> {
+}
@@ -7,35 +7,44 @@ import com.miniprojects.learnandassessportal.dto.GoogleLoginRequest;
 import com.miniprojects.learnandassessportal.model.User;
 import com.miniprojects.learnandassessportal.repository.UserRepository;
 
+import com.miniprojects.learnandassessportal.utils.GoogleTokenVerifier;
 import com.miniprojects.learnandassessportal.utils.JwtUtils;
+import com.miniprojects.learnandassessportal.utils.TokenVerifier;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 
-import java.util.Collections;
 import java.util.UUID;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 public class AuthService {
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtUtils jwtUtils;
 
-    // REPLACE WITH YOUR CLIENT ID
-    private static final String GOOGLE_CLIENT_ID = "179579451755-pi8s5oc9057drsoophil46p5vdpp22cc.apps.googleusercontent.com";
+    @Autowired
+    private TokenVerifier tokenVerifier;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // Client ID and key source are configured in GoogleAuthConfig (app.google.*)
+    @Autowired
+    private GoogleTokenVerifier googleTokenVerifier;
 
     public User register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -45,7 +54,7 @@ public class AuthService {
         User user = new User();
         user.setFullName(request.getFullName());
         user.setEmail(request.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
         user.setRole(determineRole(request.getEmail()));
 
         return userRepository.save(user);
@@ -55,34 +64,67 @@ public class AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
 
+        boolean changed = false;
+        // The password is at hand only now, so hashes made with an older strength are upgraded here
+        if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+            user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
+            changed = true;
+        }
+
         User.Role expectedRole = determineRole(user.getEmail());
         if (user.getRole() != expectedRole) {
             user.setRole(expectedRole);
+            changed = true;
+        }
+        if (changed) {
             userRepository.save(user);
         }
 
         return user;
     }
 
-    public String generateTokenForUser(User user) {
-        return jwtUtils.generateToken(user);
+    /**
+     * A short-lived access token plus a refresh token starting a new family.
+     */
+    public AuthResponse issueTokens(User user, String message) {
+        return new AuthResponse(message, user.getRole().name(), jwtUtils.generateToken(user),
+                refreshTokenService.issue(user), jwtUtils.getAccessTokenSeconds());
+    }
+
+    public AuthResponse refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token is required");
+        }
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.user();
+        return new AuthResponse("Token refreshed", user.getRole().name(), jwtUtils.generateToken(user),
+                rotation.refreshToken(), jwtUtils.getAccessTokenSeconds());
+    }
+
+    /**
+     * Revokes the refresh token's family and the access token, so neither works after sign-out.
+     */
+    public void logout(String refreshToken, String accessToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (accessToken != null) {
+            TokenVerifier.VerifiedToken verified = tokenVerifier.verify(accessToken);
+            if (verified != null) {
+                tokenRevocationService.revoke(verified.jti(), verified.expiresAt());
+            }
+        }
     }
 
     public AuthResponse googleLogin(GoogleLoginRequest request) {
         try {
-            GoogleIdTokenVerifier verifier =
-                    new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), new GsonFactory())
-                            .setAudience(Collections.singletonList(GOOGLE_CLIENT_ID))
-                            .build();
-
-            GoogleIdToken idToken = verifier.verify(request.getToken());
+            GoogleIdToken.Payload payload = googleTokenVerifier.verify(request.getToken());
 
-            if (idToken != null) {
-                GoogleIdToken.Payload payload = idToken.getPayload();
+            if (payload != null) {
                 String email = payload.getEmail();
                 String name = (String) payload.get("name");
 
@@ -98,7 +140,7 @@ public class AuthService {
                     user.setFullName(name);
                     user.setRole(determinedRole);
                     user.setPasswordHash(
-                            passwordEncoder.encode(UUID.randomUUID().toString())
+                            passwordHashingService.encode(UUID.randomUUID().toString())
                     );
                     userRepository.save(user);
                 } else if (user.getRole() != determinedRole) {
@@ -107,13 +149,15 @@ public class AuthService {
                 }
 
                 // Generate JWT Token for your application
-                String token = jwtUtils.generateToken(user);
-                return new AuthResponse("Login Successful", user.getRole().name(), token);
+                return issueTokens(user, "Login Successful");
 
             } else {
                 throw new RuntimeException("Invalid Google Token");
             }
 
+        } catch (ResponseStatusException e) {
+            // e.g. 503 from a saturated password-hashing pool; keep the status
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Google Login Failed: " + e.getMessage());
         }
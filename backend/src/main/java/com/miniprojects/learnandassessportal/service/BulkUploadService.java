@@ -1,99 +1,295 @@
 package com.miniprojects.learnandassessportal.service;
 
+import com.miniprojects.learnandassessportal.dto.BulkUploadResult;
 import com.miniprojects.learnandassessportal.model.Course;
 import com.miniprojects.learnandassessportal.model.Lesson;
 import com.miniprojects.learnandassessportal.model.Module;
 import com.miniprojects.learnandassessportal.repository.CourseRepository;
 import com.miniprojects.learnandassessportal.repository.LessonRepository;
 import com.miniprojects.learnandassessportal.repository.ModuleRepository;
+import io.micrometer.core.annotation.Timed;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 public class BulkUploadService {
 
+    // Lessons are written with plain JDBC batches: Hibernate can't batch inserts of IDENTITY-keyed
+    // entities, and the import never needs the generated lesson IDs back.
+    private static final String INSERT_LESSON_SQL =
+            "INSERT INTO lessons (title, content_type, video_path, pdf_path, text_content, lesson_order, module_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired private CourseRepository courseRepository;
     @Autowired private ModuleRepository moduleRepository;
     @Autowired private LessonRepository lessonRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ContentVersions contentVersions;
+
+    @Value("${app.bulk-upload.batch-size:500}")
+    private int batchSize;
 
+    /**
+     * Imports the whole CSV in one transaction; any invalid row rolls back everything.
+     */
     @Transactional
-    public void processCsvBulkUpload(Integer courseId, MultipartFile file) {
+    public BulkUploadResult processCsvBulkUpload(Integer courseId, MultipartFile file) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found with ID: " + courseId));
 
-        // Get existing modules for this course to calculate next order
-        List<Module> existingModules = moduleRepository.findByCourse_CourseIdOrderByModuleOrderAsc(courseId);
-        int moduleOrderCounter = existingModules.size() + 1;
+        try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            long started = System.nanoTime();
+            ImportSession session = new ImportSession(course);
+            for (CSVRecord record : parse(fileReader)) {
+                session.importRow(record);
+            }
+            session.flush();
+            session.publishChanges();
+            return session.toResult(started);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid data in CSV: " + e.getMessage());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to process CSV file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imports a CSV committing every chunkSize rows in its own transaction.
+     * Invalid rows are reported to the listener and skipped; a chunk that fails to
+     * commit is reported row by row and the import carries on with the next chunk.
+     */
+    public BulkUploadResult importInChunks(Integer courseId, Reader reader, int chunkSize, ImportListener listener) throws IOException {
+        long started = System.nanoTime();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Course course = tx.execute(status -> courseRepository.findById(courseId)
+                .orElseThrow(() -> new RuntimeException("Course not found with ID: " + courseId)));
 
-        // Keep track of modules created in this session to group lessons
-        Map<String, Module> moduleCache = new HashMap<>();
+        ImportSession session = tx.execute(status -> new ImportSession(course));
+        List<CSVRecord> chunk = new ArrayList<>(chunkSize);
 
-        // Also check if a module with the same title already exists in this course
-        for (Module existing : existingModules) {
-            moduleCache.put(existing.getTitle(), existing);
+        for (CSVRecord record : parse(reader)) {
+            chunk.add(record);
+            if (chunk.size() >= chunkSize) {
+                session = commitChunk(tx, session, chunk, listener);
+            }
         }
+        session = commitChunk(tx, session, chunk, listener);
+
+        return session.toResult(started);
+    }
 
-        try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(file.getInputStream(), "UTF-8"))) {
-
-            Iterable<CSVRecord> records = CSVFormat.DEFAULT.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .setIgnoreEmptyLines(true)
-                    .setTrim(true)
-                    .build()
-                    .parse(fileReader);
-
-            for (CSVRecord record : records) {
-                String moduleTitle = record.get("ModuleTitle").trim();
-
-                // 1. Get or Create Module
-                Module module = moduleCache.get(moduleTitle);
-                if (module == null) {
-                    module = new Module();
-                    module.setCourse(course);
-                    module.setTitle(moduleTitle);
-                    module.setModuleOrder(moduleOrderCounter++);
-
-                    module = moduleRepository.save(module);
-                    moduleCache.put(moduleTitle, module);
+    private ImportSession commitChunk(TransactionTemplate tx, ImportSession session,
+                                      List<CSVRecord> chunk, ImportListener listener) {
+        if (chunk.isEmpty()) return session;
+        // Rows already reported as invalid; a rollback is only reported for the others
+        Set<Long> invalid = new HashSet<>();
+        try {
+            tx.executeWithoutResult(status -> {
+                for (CSVRecord record : chunk) {
+                    try {
+                        session.importRow(record);
+                    } catch (IllegalArgumentException e) {
+                        session.rowsFailed++;
+                        invalid.add(record.getRecordNumber());
+                        listener.rowFailed(record.getRecordNumber(), "Invalid data in CSV: " + e.getMessage());
+                    }
                 }
+                session.flush();
+            });
+            session.markCommitted();
+            session.publishChanges();
+            listener.chunkFinished(chunk.size(), session.lessonsCreated, session.modulesCreated);
+            return session;
+        } catch (RuntimeException e) {
+            // The chunk was rolled back: report its rows and rebuild module/order state from the database
+            for (CSVRecord record : chunk) {
+                if (!invalid.contains(record.getRecordNumber())) {
+                    listener.rowFailed(record.getRecordNumber(), "Chunk rolled back: " + e.getMessage());
+                }
+            }
+            listener.chunkFinished(chunk.size(), session.committedLessons, session.committedModules);
+            ImportSession reloaded = tx.execute(status -> new ImportSession(session.course));
+            reloaded.carryOver(session, chunk.size());
+            return reloaded;
+        } finally {
+            chunk.clear();
+        }
+    }
+
+    private Iterable<CSVRecord> parse(Reader reader) throws IOException {
+        return CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .build()
+                .parse(reader);
+    }
+
+    /**
+     * Progress callbacks of a chunked import.
+     */
+    public interface ImportListener {
+        // Called once per chunk, committed or not, with the running totals of committed work
+        void chunkFinished(int rowsInChunk, long lessonsCreated, int modulesCreated);
 
-                // 2. Create Lesson (if lesson data exists in this row)
-                String lessonTitle = record.get("LessonTitle");
-                if (lessonTitle != null && !lessonTitle.trim().isEmpty()) {
-                    Lesson lesson = new Lesson();
-                    lesson.setModule(module);
-                    lesson.setTitle(lessonTitle.trim());
-
-                    String typeStr = record.get("LessonType").trim().toUpperCase();
-                    Lesson.ContentType type = Lesson.ContentType.valueOf(typeStr);
-                    lesson.setContentType(type);
-
-                    String content = record.get("LessonContent").trim();
-                    if (type == Lesson.ContentType.VIDEO) lesson.setVideoPath(content);
-                    else if (type == Lesson.ContentType.PDF) lesson.setPdfPath(content);
-                    else if (type == Lesson.ContentType.TEXT) lesson.setTextContent(content);
-
-                    // Calculate per-module lesson order
-                    List<Lesson> existingLessons = lessonRepository.findByModule_ModuleIdOrderByLessonOrderAsc(module.getModuleId());
-                    lesson.setLessonOrder(existingLessons.size() + 1);
-                    lessonRepository.save(lesson);
+        void rowFailed(long rowNumber, String message);
+    }
+
+    /**
+     * Streams CSV rows into modules and lessons.
+     * Memory stays constant: records are handled one at a time, lesson order comes from
+     * per-module counters seeded by a single MAX(lessonOrder) query, and lessons are
+     * flushed in JDBC batches of app.bulk-upload.batch-size rows.
+     * Must be created inside a transaction.
+     */
+    private class ImportSession {
+        final Course course;
+
+        // Modules by title (existing ones plus those created in this import) and next lesson order per module
+        final Map<String, Module> moduleCache = new HashMap<>();
+        final Map<Integer, Integer> nextLessonOrder = new HashMap<>();
+        final List<Object[]> pendingLessons = new ArrayList<>(batchSize);
+        int moduleOrderCounter;
+
+        long rows;
+        long rowsFailed;
+        long lessonsCreated;
+        int modulesCreated;
+        long committedLessons;
+        int committedModules;
+        long committedRowsFailed;
+
+        ImportSession(Course course) {
+            this.course = course;
+            Integer courseId = course.getCourseId();
+
+            // Get existing modules for this course to calculate next order
+            List<Module> existingModules = moduleRepository.findByCourse_CourseIdOrderByModuleOrderAsc(courseId);
+            moduleOrderCounter = existingModules.size() + 1;
+            for (Module existing : existingModules) {
+                moduleCache.put(existing.getTitle(), existing);
+            }
+            for (Object[] row : lessonRepository.findMaxLessonOrderByCourseId(courseId)) {
+                Integer maxOrder = (Integer) row[1];
+                nextLessonOrder.put((Integer) row[0], maxOrder != null ? maxOrder + 1 : 1);
+            }
+        }
+
+        void importRow(CSVRecord record) {
+            rows++;
+            String moduleTitle = record.get("ModuleTitle").trim();
+
+            // Validate the lesson part first so a bad row doesn't leave an empty module behind
+            String lessonTitle = record.get("LessonTitle");
+            boolean hasLesson = lessonTitle != null && !lessonTitle.trim().isEmpty();
+            Lesson.ContentType type = null;
+            String content = null;
+            if (hasLesson) {
+                String typeStr = record.get("LessonType").trim().toUpperCase();
+                type = Lesson.ContentType.valueOf(typeStr);
+                content = record.get("LessonContent").trim();
+            }
+
+            // 1. Get or Create Module
+            Module module = moduleCache.get(moduleTitle);
+            if (module == null) {
+                module = new Module();
+                module.setCourse(course);
+                module.setTitle(moduleTitle);
+                module.setModuleOrder(moduleOrderCounter++);
+
+                module = moduleRepository.save(module);
+                moduleCache.put(moduleTitle, module);
+                modulesCreated++;
+            }
+
+            // 2. Queue Lesson (if lesson data exists in this row)
+            if (hasLesson) {
+                // Per-module lesson order from the in-memory counter
+                int lessonOrder = nextLessonOrder.getOrDefault(module.getModuleId(), 1);
+                nextLessonOrder.put(module.getModuleId(), lessonOrder + 1);
+
+                pendingLessons.add(new Object[]{
+                        lessonTitle.trim(),
+                        type.name(),
+                        type == Lesson.ContentType.VIDEO ? content : null,
+                        type == Lesson.ContentType.PDF ? content : null,
+                        type == Lesson.ContentType.TEXT ? content : null,
+                        lessonOrder,
+                        module.getModuleId()
+                });
+                lessonsCreated++;
+
+                if (pendingLessons.size() >= batchSize) {
+                    flush();
                 }
             }
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Invalid data in CSV: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to process CSV file: " + e.getMessage());
+        }
+
+        void flush() {
+            if (!pendingLessons.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_LESSON_SQL, pendingLessons);
+                pendingLessons.clear();
+            }
+        }
+
+        /**
+         * Bumps the content versions of the course and of every module the import may have touched.
+         */
+        void publishChanges() {
+            contentVersions.bumpCourse(course.getCourseId());
+            for (Module module : moduleCache.values()) {
+                contentVersions.bumpModule(module.getModuleId());
+            }
+        }
+
+        void markCommitted() {
+            committedLessons = lessonsCreated;
+            committedModules = modulesCreated;
+            committedRowsFailed = rowsFailed;
+        }
+
+        /**
+         * Continues the counters of a session whose last chunk was rolled back.
+         */
+        void carryOver(ImportSession failed, int rolledBackRows) {
+            rows = failed.rows;
+            rowsFailed = failed.committedRowsFailed + rolledBackRows;
+            lessonsCreated = failed.committedLessons;
+            modulesCreated = failed.committedModules;
+            markCommitted();
+        }
+
+        BulkUploadResult toResult(long startedNanos) {
+            long elapsedMs = Math.max(1, (System.nanoTime() - startedNanos) / 1_000_000);
+            String message = rowsFailed == 0 ? "Bulk upload successful"
+                    : "Bulk upload finished with " + rowsFailed + " failed rows";
+            return new BulkUploadResult(message, rows, rowsFailed, modulesCreated, lessonsCreated,
+                    elapsedMs, rows * 1000.0 / elapsedMs);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.model.Course;
+import com.miniprojects.learnandassessportal.model.Lesson;
+import com.miniprojects.learnandassessportal.model.Module;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through caches of the most read course content: single courses, the module tree of
+ * a course and the lessons of a module (see TieredCache).
+ *
+ * Entries are evicted by ContentVersions, whose bumps every content write already goes
+ * through, so a cache entry and an ETag always go stale together. Cached values are shared
+ * between requests and must be treated as read-only.
+ */
+@Service
+public class ContentCache {
+
+    @Autowired
+    private SharedCacheStore sharedCacheStore;
+
+    @Value("${app.content-cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${app.content-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private TieredCache<Integer, Course> courses;
+    private TieredCache<Integer, List<Module>> modulesByCourse;
+    private TieredCache<Integer, List<Lesson>> lessonsByModule;
+
+    @PostConstruct
+    void init() {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        courses = new TieredCache<>("course", maxEntries, ttl, sharedCacheStore);
+        modulesByCourse = new TieredCache<>("course-modules", maxEntries, ttl, sharedCacheStore);
+        lessonsByModule = new TieredCache<>("module-lessons", maxEntries, ttl, sharedCacheStore);
+    }
+
+    public Course getCourse(Integer courseId, Supplier<Course> loader) {
+        return courses.get(courseId, loader);
+    }
+
+    public List<Module> getModulesOfCourse(Integer courseId, Supplier<List<Module>> loader) {
+        return modulesByCourse.get(courseId, loader);
+    }
+
+    public List<Lesson> getLessonsOfModule(Integer moduleId, Supplier<List<Lesson>> loader) {
+        return lessonsByModule.get(moduleId, loader);
+    }
+
+    /**
+     * The course or anything in its module tree changed.
+     */
+    public void evictCourse(Integer courseId) {
+        courses.invalidate(courseId);
+        modulesByCourse.invalidate(courseId);
+    }
+
+    /**
+     * The lessons of the module changed.
+     */
+    public void evictModule(Integer moduleId) {
+        lessonsByModule.invalidate(moduleId);
+    }
+
+    public void clear() {
+        courses.clear();
+        modulesByCourse.clear();
+        lessonsByModule.clear();
+    }
+
+    public List<TieredCache<?, ?>> getCaches() {
+        return List.of(courses, modulesByCourse, lessonsByModule);
+    }
+}
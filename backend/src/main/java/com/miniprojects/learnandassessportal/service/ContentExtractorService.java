@@ -1,16 +1,23 @@
 package com.miniprojects.learnandassessportal.service;
 
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import io.micrometer.core.annotation.Timed;
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
 import org.apache.poi.xslf.usermodel.XSLFShape;
 import org.apache.poi.xslf.usermodel.XSLFSlide;
 import org.apache.poi.xslf.usermodel.XSLFTextShape;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.*;
 import java.net.HttpURLConnection;
@@ -19,15 +26,41 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 public class ContentExtractorService {
 
+    private static final Logger log = LoggerFactory.getLogger(ContentExtractorService.class);
+
     @Value("${quiz.upload.max-size-mb:50}")
     private int maxUploadSizeMb;
 
+    @Value("${quiz.extraction.max-file-size-mb:25}")
+    private int maxFileSizeMb;
+
+    @Value("${quiz.extraction.file-timeout-seconds:60}")
+    private long fileTimeoutSeconds;
+
+    @Value("${quiz.extraction.max-chars-per-file:2000000}")
+    private int maxCharsPerFile;
+
+    @Autowired
+    private PdfTextExtractor pdfTextExtractor;
+
+    @Autowired
+    @Qualifier("extractionExecutor")
+    private ThreadPoolTaskExecutor extractionExecutor;
+
+    @Autowired
+    private ExtractionMetrics extractionMetrics;
+
     /**
      * Returns the configured max upload size in bytes.
      */
@@ -59,62 +92,125 @@ public class ContentExtractorService {
      * Extracts text content from multiple uploaded files.
      * Supports PDF, DOCX, PPTX, TXT, and other plain text formats.
      * Files are processed in-memory and never stored to disk.
+     *
+     * Files are extracted in parallel on the extraction executor, so a multi-file
+     * upload takes about as long as its slowest file. Output keeps the upload order.
+     * Each file has a size cap (extraction.max-file-size-mb), a timeout counted from its
+     * submission (extraction.file-timeout-seconds) and a character cap on the extracted text
+     * (extraction.max-chars-per-file); PDFs are buffered in scratch files, not on the heap.
+     * A file over a limit is skipped with a warning; a timed-out task is cancelled and stops
+     * at its next page, slide or paragraph. A full extraction queue answers 503.
      */
     public String extractTextFromFiles(MultipartFile[] files) {
-        StringBuilder allText = new StringBuilder();
         List<String> errors = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Future<String>> results = new ArrayList<>();
+        List<Long> deadlines = new ArrayList<>();
 
         for (MultipartFile file : files) {
             if (file.isEmpty()) continue;
 
             String originalName = file.getOriginalFilename();
             if (originalName == null) originalName = "unknown";
-            String lowerName = originalName.toLowerCase();
 
+            String format = formatOf(originalName.toLowerCase());
+            if (format == null) {
+                errors.add("Unsupported file type: " + originalName);
+                continue;
+            }
+            if (file.getSize() > (long) maxFileSizeMb * 1024 * 1024) {
+                errors.add("Skipped " + originalName + ": larger than " + maxFileSizeMb + " MB");
+                continue;
+            }
+
+            names.add(originalName);
+            deadlines.add(System.nanoTime() + TimeUnit.SECONDS.toNanos(fileTimeoutSeconds));
             try {
-                String extracted;
-                if (lowerName.endsWith(".pdf")) {
-                    extracted = extractFromPdf(file.getInputStream());
-                } else if (lowerName.endsWith(".docx")) {
-                    extracted = extractFromDocx(file.getInputStream());
-                } else if (lowerName.endsWith(".pptx")) {
-                    extracted = extractFromPptx(file.getInputStream());
-                } else if (lowerName.endsWith(".txt") || lowerName.endsWith(".md") ||
-                           lowerName.endsWith(".csv") || lowerName.endsWith(".java") ||
-                           lowerName.endsWith(".py") || lowerName.endsWith(".js") ||
-                           lowerName.endsWith(".html") || lowerName.endsWith(".xml") ||
-                           lowerName.endsWith(".json") || lowerName.endsWith(".log")) {
-                    // Treat as plain text
-                    extracted = new String(file.getBytes(), StandardCharsets.UTF_8);
-                } else {
-                    errors.add("Unsupported file type: " + originalName);
-                    continue;
-                }
+                results.add(extractionExecutor.submit(() -> timedExtract(file, format)));
+            } catch (TaskRejectedException e) {
+                results.forEach(f -> f.cancel(true));
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many uploads are being processed, please retry shortly");
+            }
+        }
 
+        StringBuilder allText = new StringBuilder();
+        for (int i = 0; i < results.size(); i++) {
+            String originalName = names.get(i);
+            Future<String> result = results.get(i);
+            try {
+                // Each file's timeout runs from its own submission, not from when we got to it
+                long remaining = Math.max(0, deadlines.get(i) - System.nanoTime());
+                String extracted = result.get(remaining, TimeUnit.NANOSECONDS);
                 if (extracted != null && !extracted.isBlank()) {
                     allText.append("--- Content from: ").append(originalName).append(" ---\n");
                     allText.append(extracted).append("\n\n");
                 }
-            } catch (Exception e) {
-                errors.add("Failed to process " + originalName + ": " + e.getMessage());
+            } catch (TimeoutException e) {
+                result.cancel(true);
+                errors.add("Timed out processing " + originalName + " after " + fileTimeoutSeconds + "s");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.forEach(f -> f.cancel(true));
+                throw new RuntimeException("Content extraction was interrupted");
+            } catch (ExecutionException e) {
+                errors.add("Failed to process " + originalName + ": " + e.getCause().getMessage());
             }
         }
 
         if (!errors.isEmpty()) {
-            System.err.println("Content extraction warnings: " + String.join("; ", errors));
+            log.warn("Content extraction warnings: {}", String.join("; ", errors));
         }
 
         return allText.toString();
     }
 
+    private String timedExtract(MultipartFile file, String format) throws Exception {
+        long started = System.nanoTime();
+        boolean ok = false;
+        long chars = 0;
+        try {
+            String extracted = switch (format) {
+                case "pdf" -> extractFromPdf(file.getInputStream());
+                case "docx" -> extractFromDocx(file.getInputStream());
+                case "pptx" -> extractFromPptx(file.getInputStream());
+                default -> new String(file.getBytes(), StandardCharsets.UTF_8);
+            };
+            ok = true;
+            if (extracted != null && extracted.length() > maxCharsPerFile) {
+                log.warn("Truncated text of {} to {} characters", file.getOriginalFilename(), maxCharsPerFile);
+                extracted = extracted.substring(0, maxCharsPerFile);
+            }
+            chars = extracted != null ? extracted.length() : 0;
+            return extracted;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            extractionMetrics.record("content", format, file.getSize(), chars, elapsed, ok);
+            log.debug("Extracted {} ({}, {} bytes) in {} ms", file.getOriginalFilename(), format,
+                    file.getSize(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private static String formatOf(String lowerName) {
+        if (lowerName.endsWith(".pdf")) return "pdf";
+        if (lowerName.endsWith(".docx")) return "docx";
+        if (lowerName.endsWith(".pptx")) return "pptx";
+        if (lowerName.endsWith(".txt") || lowerName.endsWith(".md") ||
+            lowerName.endsWith(".csv") || lowerName.endsWith(".java") ||
+            lowerName.endsWith(".py") || lowerName.endsWith(".js") ||
+            lowerName.endsWith(".html") || lowerName.endsWith(".xml") ||
+            lowerName.endsWith(".json") || lowerName.endsWith(".log")) {
+            // Treat as plain text
+            return "text";
+        }
+        return null;
+    }
+
     /**
-     * Extracts text from a PDF input stream using PDFBox.
+     * Extracts text from a PDF input stream page by page, stopping at the per-file character cap.
      */
     private String extractFromPdf(InputStream inputStream) throws Exception {
-        try (PDDocument document = PDDocument.load(inputStream)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
-        }
+        return pdfTextExtractor.extractText(inputStream, maxCharsPerFile + 1);
     }
 
     /**
@@ -124,7 +220,9 @@ public class ContentExtractorService {
         try (XWPFDocument document = new XWPFDocument(inputStream)) {
             StringBuilder text = new StringBuilder();
             for (XWPFParagraph paragraph : document.getParagraphs()) {
+                checkCancelled();
                 text.append(paragraph.getText()).append("\n");
+                if (text.length() > maxCharsPerFile) break;
             }
             return text.toString();
         }
@@ -137,6 +235,8 @@ public class ContentExtractorService {
         try (XMLSlideShow pptx = new XMLSlideShow(inputStream)) {
             StringBuilder text = new StringBuilder();
             for (XSLFSlide slide : pptx.getSlides()) {
+                checkCancelled();
+                if (text.length() > maxCharsPerFile) break;
                 for (XSLFShape shape : slide.getShapes()) {
                     if (shape instanceof XSLFTextShape textShape) {
                         text.append(textShape.getText()).append("\n");
@@ -147,6 +247,13 @@ public class ContentExtractorService {
         }
     }
 
+    // POI doesn't check interruption, so a cancelled (timed-out) extraction stops here
+    private static void checkCancelled() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Extraction cancelled");
+        }
+    }
+
     /**
      * Extracts the video ID from various YouTube URL formats.
      */
@@ -0,0 +1,104 @@
+package com.miniprojects.learnandassessportal.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters of the public course content, used as strong ETags by the course,
+ * module, lesson and quiz GET endpoints.
+ *
+ * Three aggregates are versioned: the catalog (course list), each course (course fields,
+ * its modules and their lessons) and each module (the module, its lessons and quizzes).
+ * Every write in CourseService, ModuleService, LessonService, QuizService and the importers
+ * bumps the aggregates it changed; inside a transaction the bump waits for the commit, so a
+ * reader can never pair a new ETag with the old rows. The same bumps evict the matching
+ * ContentCache entries and, for modules, the QuestionPoolCache pool, so a concurrent reader
+ * can't re-cache the old rows between the eviction and the commit.
+ *
+ * Counters live in memory. The ETag carries a per-process epoch, so after a restart (or on
+ * another instance) old ETags simply stop matching and the client gets a fresh 200.
+ */
+@Service
+public class ContentVersions {
+
+    @Autowired
+    private ContentCache contentCache;
+
+    @Autowired
+    private QuestionPoolCache questionPoolCache;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong catalog = new AtomicLong();
+    private final ConcurrentHashMap<Integer, AtomicLong> courses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, AtomicLong> modules = new ConcurrentHashMap<>();
+
+    public String catalogETag() {
+        return "\"catalog-" + epoch + "-" + catalog.get() + "\"";
+    }
+
+    public String courseETag(Integer courseId) {
+        return "\"course-" + courseId + "-" + epoch + "-" + current(courses, courseId) + "\"";
+    }
+
+    public String moduleETag(Integer moduleId) {
+        return "\"module-" + moduleId + "-" + epoch + "-" + current(modules, moduleId) + "\"";
+    }
+
+    /**
+     * A course was created, updated or deleted.
+     */
+    public void bumpCatalog() {
+        afterCommit(catalog::incrementAndGet);
+    }
+
+    /**
+     * The course, its module list or any of its lessons changed.
+     */
+    public void bumpCourse(Integer courseId) {
+        if (courseId == null) return;
+        afterCommit(() -> {
+            contentCache.evictCourse(courseId);
+            increment(courses, courseId);
+        });
+    }
+
+    /**
+     * The module, its lessons or its quizzes changed.
+     */
+    public void bumpModule(Integer moduleId) {
+        if (moduleId == null) return;
+        afterCommit(() -> {
+            contentCache.evictModule(moduleId);
+            questionPoolCache.invalidate(moduleId);
+            increment(modules, moduleId);
+        });
+    }
+
+    private static long current(ConcurrentHashMap<Integer, AtomicLong> versions, Integer id) {
+        AtomicLong version = versions.get(id);
+        return version != null ? version.get() : 0;
+    }
+
+    private static void increment(ConcurrentHashMap<Integer, AtomicLong> versions, Integer id) {
+        versions.computeIfAbsent(id, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static void afterCommit(Runnable bump) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+}
@@ -1,15 +1,34 @@
 package com.miniprojects.learnandassessportal.service;
 
+import com.miniprojects.learnandassessportal.dto.CourseCatalogPage;
+import com.miniprojects.learnandassessportal.dto.CourseDTO;
+import com.miniprojects.learnandassessportal.dto.CourseOutlineResponse;
+import com.miniprojects.learnandassessportal.dto.CourseOutlineResponse.LessonOutline;
+import com.miniprojects.learnandassessportal.dto.CourseOutlineResponse.ModuleOutline;
 import com.miniprojects.learnandassessportal.model.Course;
 import com.miniprojects.learnandassessportal.model.User;
 import com.miniprojects.learnandassessportal.repository.CourseRepository;
+import com.miniprojects.learnandassessportal.repository.LessonRepository;
+import com.miniprojects.learnandassessportal.repository.ModuleRepository;
 import com.miniprojects.learnandassessportal.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CourseService {
@@ -17,6 +36,17 @@ public class CourseService {
     private CourseRepository courseRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ModuleRepository moduleRepository;
+    @Autowired
+    private LessonRepository lessonRepository;
+    @Autowired
+    private ContentVersions contentVersions;
+    @Autowired
+    private ContentCache contentCache;
+
+    @Value("${app.catalog.max-page-size:50}")
+    private int maxCatalogPageSize = 50;
 
     public Course createCourse(Course course, String instructorEmail) {
         User instructor = userRepository.findByEmail(instructorEmail)
@@ -27,13 +57,76 @@ public class CourseService {
         }
 
         course.setInstructor(instructor);
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        contentVersions.bumpCatalog();
+        return saved;
+    }
+
+    /**
+     * Gives courses stored without a createdAt one, so every course has a catalog position
+     * and a cursor that decodes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillCreatedAt() {
+        int updated = courseRepository.backfillCreatedAt(LocalDateTime.of(1970, 1, 1, 0, 0));
+        if (updated > 0) {
+            contentVersions.bumpCatalog();
+        }
     }
 
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
 
+    /**
+     * One page of the catalog, newest first. The cursor is the (createdAt, courseId) of the last
+     * card of the previous page, so pages stay stable while courses are added and each page
+     * costs one index range scan however deep the client has scrolled.
+     */
+    public CourseCatalogPage getCatalogPage(String category, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxCatalogPageSize));
+        String categoryFilter = category == null || category.isBlank() ? null : category.trim();
+        // One extra row tells whether there is a next page without a count query
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<CourseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = courseRepository.findCatalogFirstPage(categoryFilter, fetch);
+        } else {
+            CatalogCursor after = CatalogCursor.decode(cursor);
+            rows = courseRepository.findCatalogPageAfter(categoryFilter, after.createdAt(), after.courseId(), fetch);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new CourseCatalogPage(rows, null);
+        }
+        List<CourseDTO> page = rows.subList(0, pageSize);
+        CourseDTO last = page.get(pageSize - 1);
+        return new CourseCatalogPage(List.copyOf(page),
+                new CatalogCursor(last.getCreatedAt(), last.getCourseId()).encode());
+    }
+
+    // Opaque to clients: base64url of "<createdAt>|<courseId>"
+    record CatalogCursor(LocalDateTime createdAt, Integer courseId) {
+
+        String encode() {
+            String raw = createdAt + "|" + courseId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static CatalogCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new CatalogCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                        Integer.valueOf(raw.substring(sep + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid catalog cursor");
+            }
+        }
+    }
+
     public List<Course> getCoursesByInstructor(String instructorEmail) {
         return courseRepository.findByInstructor_Email(instructorEmail);
     }
@@ -54,7 +147,10 @@ public class CourseService {
         existingCourse.setCategory(updatedData.getCategory());
         // thumbnail logic would go here if updated
 
-        return courseRepository.save(existingCourse);
+        Course saved = courseRepository.save(existingCourse);
+        contentVersions.bumpCatalog();
+        contentVersions.bumpCourse(courseId);
+        return saved;
     }
 
     // Delete a course
@@ -67,11 +163,47 @@ public class CourseService {
         }
 
         courseRepository.delete(existingCourse);
+        contentVersions.bumpCatalog();
+        contentVersions.bumpCourse(courseId);
     }
 
     // Helper to get single course (needed for Edit form)
     public Course getCourseById(Integer courseId) {
-        return courseRepository.findById(courseId)
+        return contentCache.getCourse(courseId, () -> courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found")));
+    }
+
+    /**
+     * Course -> modules -> lessons in three queries whatever the module count: the course header,
+     * the module rows and the lesson rows, stitched together in memory. Lesson text bodies are
+     * only read when includeText is set.
+     */
+    public CourseOutlineResponse getCourseOutline(Integer courseId, boolean includeText) {
+        CourseRepository.OutlineHeader course = courseRepository.findOutlineHeader(courseId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+
+        List<ModuleRepository.OutlineRow> moduleRows = moduleRepository.findOutlineRowsByCourseId(courseId);
+        Map<Integer, List<LessonOutline>> lessonsByModule = new HashMap<>();
+        for (ModuleRepository.OutlineRow m : moduleRows) {
+            lessonsByModule.put(m.getModuleId(), new ArrayList<>());
+        }
+
+        List<? extends LessonRepository.OutlineRow> lessonRows = includeText
+                ? lessonRepository.findOutlineRowsWithTextByCourseId(courseId)
+                : lessonRepository.findOutlineRowsByCourseId(courseId);
+        for (LessonRepository.OutlineRow l : lessonRows) {
+            String text = l instanceof LessonRepository.OutlineTextRow t ? t.getTextContent() : null;
+            lessonsByModule.get(l.getModuleId()).add(new LessonOutline(l.getLessonId(), l.getTitle(),
+                    l.getContentType() != null ? l.getContentType().name() : null,
+                    l.getVideoPath(), l.getPdfPath(), l.getLessonOrder(), text));
+        }
+
+        List<ModuleOutline> modules = new ArrayList<>(moduleRows.size());
+        for (ModuleRepository.OutlineRow m : moduleRows) {
+            modules.add(new ModuleOutline(m.getModuleId(), m.getTitle(), m.getModuleOrder(),
+                    lessonsByModule.get(m.getModuleId())));
+        }
+        return new CourseOutlineResponse(course.getCourseId(), course.getTitle(), course.getDescription(),
+                course.getCategory(), course.getThumbnail(), course.getInstructorName(), modules);
     }
 }
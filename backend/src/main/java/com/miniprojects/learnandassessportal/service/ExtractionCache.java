@@ -0,0 +1,361 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniprojects.learnandassessportal.model.Question;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Cache of extracted text and parsed questions, keyed by the SHA-256 of the uploaded bytes.
+ *
+ * Lets the preview-then-upload flow and repeated uploads of the same file skip PDFBox/POI
+ * and the question parser. Entries are evicted least-recently-used once the estimated size
+ * passes max-size-mb; when spill-dir is set, evicted entries are written there as JSON and
+ * read back on a later miss. The spill directory is a bounded tier of its own: files are
+ * deleted least-recently-spilled first beyond spill-max-size-mb, after spill-ttl-hours, and
+ * when they are read back into memory. Questions are stored as plain values and handed out
+ * as fresh Question objects, since callers attach them to a Quiz and save them.
+ */
+@Service
+public class ExtractionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionCache.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quiz.extraction-cache.max-size-mb:64}")
+    private long maxSizeMb;
+
+    @Value("${quiz.extraction-cache.spill-dir:}")
+    private String spillDir;
+
+    @Value("${quiz.extraction-cache.spill-max-size-mb:256}")
+    private long spillMaxSizeMb;
+
+    @Value("${quiz.extraction-cache.spill-ttl-hours:24}")
+    private long spillTtlHours;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long estimatedBytes;
+
+    // Spilled files (key -> file size), least recently spilled first; guarded by itself
+    private final LinkedHashMap<String, Long> spillIndex = new LinkedHashMap<>();
+    private long spilledBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * SHA-256 of the file contents plus its extension (the same bytes extract differently per format).
+     */
+    public String keyOf(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        String ext = name.substring(name.lastIndexOf('.') + 1);
+        return HexFormat.of().formatHex(digest.digest()) + "." + ext;
+    }
+
+    /**
+     * Cached extracted text, or null.
+     */
+    public String getText(String key) {
+        Entry entry = lookup(key);
+        return entry != null ? entry.text() : null;
+    }
+
+    /**
+     * Fresh copies of the cached parsed questions, or null if the file hasn't been parsed yet.
+     */
+    public List<Question> getQuestions(String key) {
+        Entry entry = lookup(key);
+        if (entry == null || entry.questions() == null) return null;
+        List<Question> copies = new ArrayList<>(entry.questions().size());
+        for (ParsedQuestion q : entry.questions()) {
+            copies.add(q.toQuestion());
+        }
+        return copies;
+    }
+
+    public void putText(String key, String text) {
+        store(key, new Entry(text, null));
+    }
+
+    /**
+     * Stores the parsed questions; the text is dropped since it is only needed to parse again.
+     */
+    public void putQuestions(String key, List<Question> questions) {
+        List<ParsedQuestion> values = new ArrayList<>(questions.size());
+        for (Question q : questions) {
+            values.add(ParsedQuestion.of(q));
+        }
+        store(key, new Entry(null, List.copyOf(values)));
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getDiskHitCount() { return diskHits.get(); }
+    public long getMissCount() { return misses.get(); }
+
+    public synchronized int size() { return entries.size(); }
+
+    public long getSpilledBytes() {
+        synchronized (spillIndex) {
+            return spilledBytes;
+        }
+    }
+
+    /**
+     * Picks up files spilled by a previous run, dropping expired ones and leftover temp files.
+     */
+    @PostConstruct
+    void loadSpillDir() {
+        if (!spillEnabled()) return;
+        Path dir = Paths.get(spillDir);
+        if (!Files.isDirectory(dir)) return;
+
+        Instant cutoff = Instant.now().minus(Duration.ofHours(spillTtlHours));
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> sorted = files.sorted(Comparator.comparing(ExtractionCache::lastModified)).toList();
+            for (Path file : sorted) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp") || (name.endsWith(".json") && lastModified(file).isBefore(cutoff))) {
+                    deleteQuietly(file);
+                } else if (name.endsWith(".json")) {
+                    addSpilled(name.substring(0, name.length() - ".json".length()), Files.size(file));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan extraction cache spill dir {}: {}", dir, e.getMessage());
+        }
+        trimSpilled();
+    }
+
+    /**
+     * Deletes spilled files older than spill-ttl-hours.
+     */
+    @Scheduled(fixedDelayString = "${quiz.extraction-cache.spill-sweep-interval-ms:600000}")
+    public void expireSpilled() {
+        if (!spillEnabled()) return;
+        Instant cutoff = Instant.now().minus(Duration.ofHours(spillTtlHours));
+        List<String> keys;
+        synchronized (spillIndex) {
+            keys = new ArrayList<>(spillIndex.keySet());
+        }
+        for (String key : keys) {
+            Path file = spillFile(key);
+            if (lastModified(file).isBefore(cutoff)) {
+                removeSpilled(key);
+            }
+        }
+    }
+
+    private Entry lookup(String key) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry;
+            }
+        }
+        Entry spilled = readSpilled(key);
+        if (spilled != null) {
+            diskHits.incrementAndGet();
+            store(key, spilled);
+            return spilled;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private void store(String key, Entry entry) {
+        List<Map.Entry<String, Entry>> evicted = new ArrayList<>();
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) estimatedBytes -= previous.estimatedBytes();
+            estimatedBytes += entry.estimatedBytes();
+
+            long maxBytes = maxSizeMb * 1024 * 1024;
+            for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+                 it.hasNext() && estimatedBytes > maxBytes && entries.size() > 1; ) {
+                Map.Entry<String, Entry> eldest = it.next();
+                it.remove();
+                estimatedBytes -= eldest.getValue().estimatedBytes();
+                evicted.add(eldest);
+            }
+        }
+        // Disk writes happen outside the lock
+        for (Map.Entry<String, Entry> e : evicted) {
+            spill(e.getKey(), e.getValue());
+        }
+    }
+
+    private void spill(String key, Entry entry) {
+        if (!spillEnabled()) return;
+        try {
+            Path dir = Paths.get(spillDir);
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            objectMapper.writeValue(tmp.toFile(), entry);
+            Path file = spillFile(key);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            addSpilled(key, Files.size(file));
+            trimSpilled();
+        } catch (IOException e) {
+            log.warn("Could not spill extraction cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a spilled entry back; the file is deleted since the entry is in memory again.
+     */
+    private Entry readSpilled(String key) {
+        if (!spillEnabled()) return null;
+        synchronized (spillIndex) {
+            if (!spillIndex.containsKey(key)) return null;
+        }
+        Path file = spillFile(key);
+        try {
+            if (lastModified(file).isBefore(Instant.now().minus(Duration.ofHours(spillTtlHours)))) {
+                return null;
+            }
+            return objectMapper.readValue(file.toFile(), Entry.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable extraction cache file {}: {}", file, e.getMessage());
+            return null;
+        } finally {
+            removeSpilled(key);
+        }
+    }
+
+    private void addSpilled(String key, long size) {
+        synchronized (spillIndex) {
+            Long previous = spillIndex.remove(key);
+            if (previous != null) spilledBytes -= previous;
+            spillIndex.put(key, size);
+            spilledBytes += size;
+        }
+    }
+
+    private void removeSpilled(String key) {
+        synchronized (spillIndex) {
+            Long size = spillIndex.remove(key);
+            if (size == null) return;
+            spilledBytes -= size;
+            deleteQuietly(spillFile(key));
+        }
+    }
+
+    private void trimSpilled() {
+        long maxBytes = spillMaxSizeMb * 1024 * 1024;
+        synchronized (spillIndex) {
+            for (Iterator<Map.Entry<String, Long>> it = spillIndex.entrySet().iterator();
+                 it.hasNext() && spilledBytes > maxBytes; ) {
+                Map.Entry<String, Long> eldest = it.next();
+                it.remove();
+                spilledBytes -= eldest.getValue();
+                deleteQuietly(spillFile(eldest.getKey()));
+            }
+        }
+    }
+
+    private boolean spillEnabled() {
+        return spillDir != null && !spillDir.isBlank();
+    }
+
+    private Path spillFile(String key) {
+        return Paths.get(spillDir, key + ".json");
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            // Gone already; treat as expired
+            return Instant.EPOCH;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete extraction cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    record Entry(String text, List<ParsedQuestion> questions) {
+        long estimatedBytes() {
+            long bytes = 64 + (text != null ? 2L * text.length() : 0);
+            if (questions != null) {
+                for (ParsedQuestion q : questions) bytes += q.estimatedBytes();
+            }
+            return bytes;
+        }
+    }
+
+    record ParsedQuestion(String questionText, String optionA, String optionB,
+                          String optionC, String optionD, String correctOption) {
+
+        static ParsedQuestion of(Question q) {
+            return new ParsedQuestion(q.getQuestionText(), q.getOptionA(), q.getOptionB(),
+                    q.getOptionC(), q.getOptionD(), q.getCorrectOption());
+        }
+
+        Question toQuestion() {
+            Question q = new Question();
+            q.setQuestionText(questionText);
+            q.setOptionA(optionA);
+            q.setOptionB(optionB);
+            q.setOptionC(optionC);
+            q.setOptionD(optionD);
+            q.setCorrectOption(correctOption);
+            return q;
+        }
+
+        long estimatedBytes() {
+            return 96 + 2L * (len(questionText) + len(optionA) + len(optionB) + len(optionC) + len(optionD) + 1);
+        }
+
+        private static int len(String s) {
+            return s != null ? s.length() : 0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.miniprojects.learnandassessportal.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-format extraction metrics shared by the content and quiz upload paths.
+ *
+ * quiz.extraction.duration   time per file (tags source, format, outcome)
+ * quiz.extraction.input      uploaded file size in bytes
+ * quiz.extraction.output     extracted text in characters
+ */
+@Component
+public class ExtractionMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * @param source which upload path extracted the file ("content" or "quiz")
+     */
+    public void record(String source, String format, long inputBytes, long extractedChars,
+                       long nanos, boolean success) {
+        Timer.builder("quiz.extraction.duration")
+                .tag("source", source)
+                .tag("format", format)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("quiz.extraction.input")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .tag("format", format)
+                .register(meterRegistry)
+                .record(inputBytes);
+        if (success) {
+            DistributionSummary.builder("quiz.extraction.output")
+                    .baseUnit("characters")
+                    .tag("source", source)
+                    .tag("format", format)
+                    .register(meterRegistry)
+                    .record(extractedChars);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.dto.BulkUploadResult;
+import com.miniprojects.learnandassessportal.dto.ImportJobResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs CSV bulk imports as background jobs.
+ *
+ * The upload is spooled to a temp file and the request returns a job ID right away;
+ * the import itself runs on the import-job executor, committing every chunk-size rows
+ * (see BulkUploadService.importInChunks). Progress, throughput, ETA and row errors
+ * can be polled until the job has been finished for retention-minutes. The total row
+ * count, and so the ETA, is an estimate taken from a quick scan of the file.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Autowired
+    private BulkUploadService bulkUploadService;
+
+    @Autowired
+    @Qualifier("importJobExecutor")
+    private ThreadPoolTaskExecutor importJobExecutor;
+
+    @Value("${app.import-jobs.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import-jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final ConcurrentHashMap<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobResponse submitCsvImport(Integer courseId, MultipartFile file, String submittedBy) {
+        evictFinishedJobs();
+
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("lap-import-", ".csv");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file: " + e.getMessage());
+        }
+        long estimatedTotalRows;
+        try {
+            file.transferTo(tempFile);
+            estimatedTotalRows = Math.max(0, estimateRecords(tempFile) - 1); // minus header
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new RuntimeException("Failed to read CSV file: " + e.getMessage());
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), courseId, submittedBy, estimatedTotalRows);
+        jobs.put(job.id, job);
+        try {
+            importJobExecutor.execute(() -> run(job, tempFile));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            deleteQuietly(tempFile);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports in progress, please retry shortly");
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * A job's progress; jobs of other users are reported as not found.
+     */
+    public ImportJobResponse getJob(String jobId, String requestedBy) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.submittedBy.equals(requestedBy)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job not found: " + jobId);
+        }
+        return job.snapshot();
+    }
+
+    private void run(ImportJob job, Path csv) {
+        job.start();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            BulkUploadResult result = bulkUploadService.importInChunks(job.courseId, reader, chunkSize, job);
+            job.complete(result);
+        } catch (Exception e) {
+            log.warn("Import job {} for course {} failed: {}", job.id, job.courseId, e.getMessage());
+            job.fail("Failed to process CSV file: " + e.getMessage());
+        } finally {
+            deleteQuietly(csv);
+        }
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    /**
+     * Estimates the CSV record count without parsing: counts non-blank lines, ignoring line
+     * breaks inside quoted fields. Only used for progress and ETA; the import itself
+     * reports the real row counts.
+     */
+    private static long estimateRecords(Path file) throws IOException {
+        long records = 0;
+        boolean inQuotes = false;
+        boolean blank = true;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    byte b = buffer[i];
+                    if (b == '"') {
+                        inQuotes = !inQuotes; // an escaped "" toggles twice
+                    }
+                    if (b == '\n' && !inQuotes) {
+                        if (!blank) records++;
+                        blank = true;
+                    } else if (b != '\r' && b != ' ' && b != '\t') {
+                        blank = false;
+                    }
+                }
+            }
+        }
+        return blank ? records : records + 1;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // temp file, the OS will clean it up
+        }
+    }
+
+    /**
+     * Mutable state of one job; written by its worker thread, read by pollers.
+     */
+    private static final class ImportJob implements BulkUploadService.ImportListener {
+        final String id;
+        final Integer courseId;
+        final String submittedBy;
+        final long estimatedTotalRows;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final List<ImportJobResponse.RowError> errors = new ArrayList<>();
+
+        volatile String status = "QUEUED";
+        volatile long startedNanos;
+        volatile long rowsProcessed;
+        volatile long rowsFailed;
+        volatile long lessonsCreated;
+        volatile int modulesCreated;
+        volatile double rowsPerSecond;
+        volatile LocalDateTime finishedAt;
+        volatile String message;
+
+        ImportJob(String id, Integer courseId, String submittedBy, long estimatedTotalRows) {
+            this.id = id;
+            this.courseId = courseId;
+            this.submittedBy = submittedBy;
+            this.estimatedTotalRows = estimatedTotalRows;
+        }
+
+        void start() {
+            startedNanos = System.nanoTime();
+            status = "RUNNING";
+        }
+
+        @Override
+        public void chunkFinished(int rowsInChunk, long lessonsCreated, int modulesCreated) {
+            this.rowsProcessed += rowsInChunk;
+            this.lessonsCreated = lessonsCreated;
+            this.modulesCreated = modulesCreated;
+            long elapsedMs = Math.max(1, Duration.ofNanos(System.nanoTime() - startedNanos).toMillis());
+            this.rowsPerSecond = rowsProcessed * 1000.0 / elapsedMs;
+        }
+
+        @Override
+        public void rowFailed(long rowNumber, String message) {
+            rowsFailed++;
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ImportJobResponse.RowError(rowNumber, message));
+                }
+            }
+        }
+
+        void complete(BulkUploadResult result) {
+            rowsProcessed = result.getRowsProcessed();
+            rowsFailed = result.getRowsFailed();
+            lessonsCreated = result.getLessonsCreated();
+            modulesCreated = result.getModulesCreated();
+            rowsPerSecond = result.getRowsPerSecond();
+            message = result.getMessage();
+            finishedAt = LocalDateTime.now();
+            status = "COMPLETED";
+        }
+
+        void fail(String message) {
+            this.message = message;
+            finishedAt = LocalDateTime.now();
+            status = "FAILED";
+        }
+
+        ImportJobResponse snapshot() {
+            Long eta = null;
+            if ("RUNNING".equals(status) && rowsPerSecond > 0) {
+                eta = (long) Math.ceil(Math.max(0, estimatedTotalRows - rowsProcessed) / rowsPerSecond);
+            } else if (finishedAt != null) {
+                eta = 0L;
+            }
+            List<ImportJobResponse.RowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = new ArrayList<>(errors);
+            }
+            return new ImportJobResponse(id, courseId, status, estimatedTotalRows, rowsProcessed, rowsFailed,
+                    lessonsCreated, modulesCreated, rowsPerSecond, eta, submittedAt, finishedAt, message, errorsCopy);
+        }
+    }
+}
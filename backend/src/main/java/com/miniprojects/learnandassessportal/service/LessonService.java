@@ -18,6 +18,10 @@ public class LessonService {
     private LessonRepository lessonRepository;
     @Autowired
     private ModuleRepository moduleRepository;
+    @Autowired
+    private ContentVersions contentVersions;
+    @Autowired
+    private ContentCache contentCache;
 
     // ... existing imports ...
     public Lesson addLesson(Long moduleId, String title, String type, String videoUrl, String pdfUrl, String textContent) {
@@ -45,7 +49,9 @@ public class LessonService {
         List<Lesson> existing = lessonRepository.findByModule_ModuleIdOrderByLessonOrderAsc(Math.toIntExact(moduleId));
         lesson.setLessonOrder(existing.size() + 1);
 
-        return lessonRepository.save(lesson);
+        Lesson saved = lessonRepository.save(lesson);
+        lessonsChanged(module.getModuleId());
+        return saved;
     }
 
     public Lesson getLessonById(Long lessonId) {
@@ -53,8 +59,34 @@ public class LessonService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson not found with ID: " + lessonId));
     }
 
+    /**
+     * Get a lesson of the given module; 404 if it doesn't exist or belongs to another module.
+     */
+    public Lesson getLessonInModule(Integer moduleId, Long lessonId) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElse(null);
+        // The module is a lazy proxy; reading its ID doesn't load it
+        if (lesson == null || !lesson.getModule().getModuleId().equals(moduleId)) {
+            throw lessonNotInModule(moduleId, lessonId);
+        }
+        return lesson;
+    }
+
+    /**
+     * 404 unless the lesson belongs to the module; reads only the lesson's module ID.
+     */
+    public void requireLessonInModule(Integer moduleId, Long lessonId) {
+        if (!lessonRepository.findModuleIdByLessonId(lessonId).map(moduleId::equals).orElse(false)) {
+            throw lessonNotInModule(moduleId, lessonId);
+        }
+    }
+
+    private static ResponseStatusException lessonNotInModule(Integer moduleId, Long lessonId) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson " + lessonId + " not found in module " + moduleId);
+    }
+
     public List<Lesson> getLessonsByModule(Integer moduleId) {
-        return lessonRepository.findByModule_ModuleIdOrderByLessonOrderAsc(moduleId);
+        return contentCache.getLessonsOfModule(moduleId,
+                () -> lessonRepository.findByModule_ModuleIdOrderByLessonOrderAsc(moduleId));
     }
 
     public Lesson updateLesson(Long lessonId, String title, String type, String videoUrl, String pdfUrl, String textContent) {
@@ -78,12 +110,21 @@ public class LessonService {
             }
         }
 
-        return lessonRepository.save(lesson);
+        Lesson saved = lessonRepository.save(lesson);
+        lessonsChanged(lesson.getModule().getModuleId());
+        return saved;
     }
 
     public void deleteLesson(Long lessonId) {
         Lesson lesson = lessonRepository.findById(lessonId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Lesson not found with ID: " + lessonId));
         lessonRepository.delete(lesson);
+        lessonsChanged(lesson.getModule().getModuleId());
+    }
+
+    // Lessons are part of both the module and the course payloads
+    private void lessonsChanged(Integer moduleId) {
+        contentVersions.bumpModule(moduleId);
+        moduleRepository.findCourseIdByModuleId(moduleId).ifPresent(contentVersions::bumpCourse);
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.miniprojects.learnandassessportal.service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stand-in for a shared L2 (app.content-cache.l2=local), for tests and single-node runs.
+ * Expired entries are dropped when they are read.
+ */
+public class LocalSharedCacheStore implements SharedCacheStore {
+
+    private record Key(String cache, Object key) {}
+
+    private record Entry(Object value, long expiresAt) {}
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Object get(String cache, Object key) {
+        Key k = new Key(cache, key);
+        Entry entry = entries.get(k);
+        if (entry == null) return null;
+        if (entry.expiresAt() - System.nanoTime() <= 0) {
+            entries.remove(k, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(String cache, Object key, Object value, Duration ttl) {
+        entries.put(new Key(cache, key), new Entry(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String cache, Object key) {
+        entries.remove(new Key(cache, key));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -5,9 +5,12 @@ import com.miniprojects.learnandassessportal.model.Course;
 import com.miniprojects.learnandassessportal.model.Module;
 import com.miniprojects.learnandassessportal.repository.CourseRepository;
 import com.miniprojects.learnandassessportal.repository.ModuleRepository;
+import com.miniprojects.learnandassessportal.repository.QuizAttemptRepository;
+import com.miniprojects.learnandassessportal.repository.QuizRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -16,6 +19,10 @@ import java.util.List;
 public class ModuleService {
     @Autowired private CourseRepository courseRepository;
     @Autowired private ModuleRepository moduleRepository;
+    @Autowired private QuizRepository quizRepository;
+    @Autowired private QuizAttemptRepository quizAttemptRepository;
+    @Autowired private ContentVersions contentVersions;
+    @Autowired private ContentCache contentCache;
 
     public Module createModule(Integer courseId, ModuleRequest request) {
         // 1. Find the parent Course
@@ -32,11 +39,14 @@ public class ModuleService {
         module.setModuleOrder(existing.size() + 1);
 
         // 3. Save to Database
-        return moduleRepository.save(module);
+        Module saved = moduleRepository.save(module);
+        contentVersions.bumpCourse(courseId);
+        return saved;
     }
 
     public List<Module> getModulesByCourseId(Integer courseId) {
-        return moduleRepository.findByCourse_CourseIdOrderByModuleOrderAsc(courseId);
+        return contentCache.getModulesOfCourse(courseId,
+                () -> moduleRepository.findWithLessonsByCourse_CourseIdOrderByModuleOrderAsc(courseId));
     }
 
     public Module getModuleById(Integer moduleId) {
@@ -56,12 +66,21 @@ public class ModuleService {
             module.setModuleOrder(request.getModuleOrder());
         }
 
-        return moduleRepository.save(module);
+        Module saved = moduleRepository.save(module);
+        contentVersions.bumpCourse(module.getCourse().getCourseId());
+        contentVersions.bumpModule(moduleId);
+        return saved;
     }
 
+    @Transactional
     public void deleteModule(Integer moduleId) {
         Module module = moduleRepository.findById(moduleId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Module not found with ID: " + moduleId));
+        // Quizzes (and their attempts) reference the module and are not cascaded from it
+        quizAttemptRepository.deleteByModuleId(moduleId);
+        quizRepository.deleteAll(quizRepository.findByModule_ModuleId(moduleId));
         moduleRepository.delete(module);
+        contentVersions.bumpCourse(module.getCourse().getCourseId());
+        contentVersions.bumpModule(moduleId);
     }
 }
@@ -0,0 +1,91 @@
+package com.miniprojects.learnandassessportal.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the BCrypt work of sign-in and registration on passwordHashingExecutor instead of the
+ * request thread, so a login storm queues on a few CPU-bound threads while catalog reads keep
+ * the rest of the Tomcat pool.
+ *
+ * The queue is bounded: when it is full, or a hash has waited longer than
+ * app.password-hashing.timeout-ms, the request fails fast with 503 instead of piling up.
+ */
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ThreadPoolTaskExecutor passwordHashingExecutor;
+
+    @Value("${app.password-hashing.timeout-ms:1000}")
+    private long timeoutMs;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public boolean matches(String rawPassword, String passwordHash) {
+        return run(() -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Whether the hash was made with weaker settings than the encoder's current ones
+     * (e.g. a lower BCrypt strength) and should be replaced on the next successful login.
+     */
+    public boolean needsRehash(String passwordHash) {
+        return passwordEncoder.upgradeEncoding(passwordHash);
+    }
+
+    public long getRejectedCount() { return rejected.get(); }
+    public long getTimedOutCount() { return timedOut.get(); }
+
+    private <T> T run(Callable<T> hashing) {
+        Future<T> result;
+        try {
+            result = passwordHashingExecutor.submit(hashing);
+        } catch (TaskRejectedException e) {
+            rejected.incrementAndGet();
+            throw busy();
+        }
+
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            timedOut.incrementAndGet();
+            throw busy();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-ins right now, please retry shortly");
+    }
+}
@@ -0,0 +1,123 @@
+package com.miniprojects.learnandassessportal.service;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * Streaming PDF text extraction shared by the quiz upload and content extraction services.
+ *
+ * The raw PDF is buffered in PDFBox scratch storage (temp files, optionally with a small
+ * in-memory part) instead of the heap, and text is emitted page by page, so peak heap
+ * per upload is bounded by one page of text rather than the whole document. Extraction
+ * stops at the next page boundary once the calling thread is interrupted (a cancelled task).
+ */
+@Service
+public class PdfTextExtractor {
+
+    // 0 = scratch buffer on disk only; otherwise up to this many MB are kept in memory first
+    @Value("${quiz.pdf.max-main-memory-mb:0}")
+    private long maxMainMemoryMb;
+
+    /**
+     * Receives the text of one page; returning false stops the extraction.
+     */
+    @FunctionalInterface
+    public interface PageConsumer {
+        boolean accept(int pageNumber, String pageText) throws IOException;
+    }
+
+    /**
+     * Writes the text of every page to the writer as it is extracted.
+     */
+    public void extract(InputStream in, Writer out) throws IOException {
+        try (PDDocument document = load(in)) {
+            new PDFTextStripper().writeText(document, out);
+        }
+    }
+
+    /**
+     * Hands the text of each page to the consumer in page order.
+     * The concatenated pages equal PDFTextStripper.getText on the whole document.
+     */
+    public void extractPages(InputStream in, PageConsumer consumer) throws IOException {
+        try (PDDocument document = load(in)) {
+            StringWriter page = new StringWriter();
+            PageStripper stripper = new PageStripper(page, consumer);
+            try {
+                stripper.writeText(document, page);
+            } catch (StopExtraction stop) {
+                // consumer asked for no more pages
+            }
+        }
+    }
+
+    /**
+     * Extracts the text into a String, stopping after about maxChars characters.
+     */
+    public String extractText(InputStream in, int maxChars) throws IOException {
+        StringBuilder text = new StringBuilder();
+        extractPages(in, (pageNumber, pageText) -> {
+            text.append(pageText);
+            return text.length() < maxChars;
+        });
+        if (text.length() > maxChars) {
+            text.setLength(maxChars);
+        }
+        return text.toString();
+    }
+
+    private PDDocument load(InputStream in) throws IOException {
+        MemoryUsageSetting memory = maxMainMemoryMb > 0
+                ? MemoryUsageSetting.setupMixed(maxMainMemoryMb * 1024 * 1024)
+                : MemoryUsageSetting.setupTempFileOnly();
+        return PDDocument.load(in, memory);
+    }
+
+    /**
+     * Text stripper that flushes its output buffer to the consumer at the end of every page.
+     */
+    private static final class PageStripper extends PDFTextStripper {
+        private final StringWriter page;
+        private final PageConsumer consumer;
+
+        PageStripper(StringWriter page, PageConsumer consumer) throws IOException {
+            this.page = page;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void startPage(PDPage pdPage) throws IOException {
+            // PDFBox doesn't check interruption itself; without this a timed-out task parses on
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("PDF extraction cancelled");
+            }
+            super.startPage(pdPage);
+        }
+
+        @Override
+        protected void endPage(PDPage pdPage) throws IOException {
+            super.endPage(pdPage);
+            String text = page.toString();
+            page.getBuffer().setLength(0);
+            if (!consumer.accept(getCurrentPageNo(), text)) {
+                throw new StopExtraction();
+            }
+        }
+    }
+
+    private static final class StopExtraction extends IOException {
+        StopExtraction() {
+            super(null, null);
+        }
+    }
+}
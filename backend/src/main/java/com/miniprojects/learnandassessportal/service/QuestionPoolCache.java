@@ -0,0 +1,249 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.dto.StudentQuestionView;
+import com.miniprojects.learnandassessportal.repository.QuestionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of every module's question pool.
+ *
+ * The pool is loaded once per module with a single query and kept as immutable
+ * parallel arrays, so drawing a randomized quiz costs O(k) with no DB round trip.
+ * Entries are dropped whenever a quiz of the module is saved or deleted.
+ */
+@Service
+public class QuestionPoolCache {
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    private final ConcurrentHashMap<Integer, QuestionPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached pool for a module, loading it on first use.
+     * Concurrent misses on the same module wait for a single load.
+     * Empty pools (unknown modules, modules without quizzes) are not cached, so the
+     * map only ever holds modules that have questions, whatever IDs clients send.
+     */
+    public QuestionPool getPool(Integer moduleId) {
+        QuestionPool pool = pools.computeIfAbsent(moduleId, id -> {
+            QuestionPool loaded = loadPool(id);
+            return loaded.isEmpty() ? null : loaded;
+        });
+        return pool != null ? pool : QuestionPool.EMPTY;
+    }
+
+    /**
+     * Drops the cached pool of a module. Writes go through ContentVersions.bumpModule,
+     * which calls this after the transaction commits.
+     */
+    public void invalidate(Integer moduleId) {
+        if (moduleId != null) {
+            pools.remove(moduleId);
+        }
+    }
+
+    public int getCachedPoolCount() {
+        return pools.size();
+    }
+
+    public long getCachedQuestionCount() {
+        long total = 0;
+        for (QuestionPool pool : pools.values()) total += pool.size();
+        return total;
+    }
+
+    public int getLargestPoolSize() {
+        int largest = 0;
+        for (QuestionPool pool : pools.values()) largest = Math.max(largest, pool.size());
+        return largest;
+    }
+
+    private QuestionPool loadPool(Integer moduleId) {
+        return QuestionPool.of(questionRepository.findPoolRowsByModuleId(moduleId));
+    }
+
+    /**
+     * Immutable snapshot of a module's questions, stored column-wise.
+     * Options are kept in their original A-D slots ("" when a slot is unused);
+     * correctIndex holds the original correct slot (0-3) or -1 if it is not A-D.
+     */
+    public static final class QuestionPool {
+
+        private static final byte IDENTITY_PERMUTATION = (byte) 0b11_10_01_00;
+        private static final String[] LETTERS = {"A", "B", "C", "D"};
+
+        static final QuestionPool EMPTY = of(List.of());
+
+        private final long[] questionIds;
+        private final long[] quizIds;
+        private final String[] questionTexts;
+        private final String[][] options;
+        private final byte[] correctIndex;
+        private final long firstQuizId;
+
+        private QuestionPool(long[] questionIds, long[] quizIds, String[] questionTexts,
+                             String[][] options, byte[] correctIndex, long firstQuizId) {
+            this.questionIds = questionIds;
+            this.quizIds = quizIds;
+            this.questionTexts = questionTexts;
+            this.options = options;
+            this.correctIndex = correctIndex;
+            this.firstQuizId = firstQuizId;
+        }
+
+        static QuestionPool of(List<QuestionRepository.PoolRow> rows) {
+            int n = rows.size();
+            long[] questionIds = new long[n];
+            long[] quizIds = new long[n];
+            String[] questionTexts = new String[n];
+            String[][] options = new String[n][];
+            byte[] correctIndex = new byte[n];
+            long firstQuizId = Long.MAX_VALUE;
+
+            for (int i = 0; i < n; i++) {
+                QuestionRepository.PoolRow row = rows.get(i);
+                questionIds[i] = row.getQuestionId();
+                quizIds[i] = row.getQuizId();
+                questionTexts[i] = row.getQuestionText();
+                options[i] = new String[]{
+                        nullToEmpty(row.getOptionA()), nullToEmpty(row.getOptionB()),
+                        nullToEmpty(row.getOptionC()), nullToEmpty(row.getOptionD())
+                };
+                correctIndex[i] = (byte) optionIndex(row.getCorrectOption());
+                firstQuizId = Math.min(firstQuizId, quizIds[i]);
+            }
+
+            return new QuestionPool(questionIds, quizIds, questionTexts, options, correctIndex,
+                    n == 0 ? -1 : firstQuizId);
+        }
+
+        /**
+         * Draws min(k, size) distinct question positions in random order using a
+         * partial Fisher-Yates shuffle. Displaced slots are tracked sparsely, so the
+         * cost is O(k) regardless of the pool size.
+         */
+        public int[] sample(int k, Random random) {
+            int n = questionIds.length;
+            int count = Math.max(0, Math.min(k, n));
+            int[] picked = new int[count];
+
+            if (count * 2 >= n) {
+                // Drawing most of the pool: a dense index array is cheaper than a map
+                int[] indices = new int[n];
+                for (int i = 0; i < n; i++) indices[i] = i;
+                for (int i = 0; i < count; i++) {
+                    int j = i + random.nextInt(n - i);
+                    int tmp = indices[i];
+                    indices[i] = indices[j];
+                    indices[j] = tmp;
+                    picked[i] = indices[i];
+                }
+                return picked;
+            }
+
+            Map<Integer, Integer> displaced = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(n - i);
+                int atJ = displaced.getOrDefault(j, j);
+                displaced.put(j, displaced.getOrDefault(i, i));
+                picked[i] = atJ;
+            }
+            return picked;
+        }
+
+        /**
+         * Shuffles the non-empty options of question i and returns the result as a
+         * byte: bits 2s..2s+1 hold the original slot (0-3) shown at position s.
+         * Empty slots go last; with fewer than two options the order is unchanged.
+         */
+        public byte shuffleOptions(int i, Random random) {
+            String[] opts = options[i];
+            int[] slots = new int[4];
+            int filled = 0;
+            for (int slot = 0; slot < 4; slot++) {
+                if (!opts[slot].isEmpty()) slots[filled++] = slot;
+            }
+            if (filled < 2) {
+                return IDENTITY_PERMUTATION;
+            }
+            int tail = filled;
+            for (int slot = 0; slot < 4; slot++) {
+                if (opts[slot].isEmpty()) slots[tail++] = slot;
+            }
+
+            for (int s = filled - 1; s > 0; s--) {
+                int j = random.nextInt(s + 1);
+                int tmp = slots[s];
+                slots[s] = slots[j];
+                slots[j] = tmp;
+            }
+            return (byte) (slots[0] | slots[1] << 2 | slots[2] << 4 | slots[3] << 6);
+        }
+
+        /**
+         * Position (0-3) the correct option of question i moves to under a permutation, -1 if unknown.
+         */
+        public int shuffledCorrectIndex(int i, byte permutation) {
+            int correct = correctIndex[i];
+            if (correct < 0) return -1;
+            for (int pos = 0; pos < 4; pos++) {
+                if (slotAt(permutation, pos) == correct) return pos;
+            }
+            return -1;
+        }
+
+        /**
+         * Student-facing view of question i with its options laid out by the permutation.
+         * Only the record itself is allocated; option strings are shared with the pool.
+         * The answer is not part of the view; it stays in the attempt session.
+         */
+        public StudentQuestionView toView(int i, byte permutation) {
+            String[] opts = options[i];
+            return new StudentQuestionView(
+                    questionIds[i],
+                    questionTexts[i],
+                    opts[slotAt(permutation, 0)],
+                    opts[slotAt(permutation, 1)],
+                    opts[slotAt(permutation, 2)],
+                    opts[slotAt(permutation, 3)]);
+        }
+
+        private static int slotAt(byte permutation, int pos) {
+            return (permutation >> (pos * 2)) & 3;
+        }
+
+        public int size() { return questionIds.length; }
+        public boolean isEmpty() { return questionIds.length == 0; }
+
+        /** Lowest quiz ID in the pool, -1 for an empty pool. */
+        public long getFirstQuizId() { return firstQuizId; }
+
+        public long getQuestionId(int i) { return questionIds[i]; }
+        public long getQuizId(int i) { return quizIds[i]; }
+        public String getQuestionText(int i) { return questionTexts[i]; }
+        public String getOption(int i, int slot) { return options[i][slot]; }
+        public int getCorrectIndex(int i) { return correctIndex[i]; }
+
+        private static String nullToEmpty(String s) {
+            return s != null ? s : "";
+        }
+
+        public static String letter(int index) {
+            return index >= 0 && index < 4 ? LETTERS[index] : "";
+        }
+
+        static int optionIndex(String letter) {
+            if (letter == null || letter.length() != 1) return -1;
+            int idx = Character.toUpperCase(letter.charAt(0)) - 'A';
+            return idx >= 0 && idx < 4 ? idx : -1;
+        }
+    }
+}
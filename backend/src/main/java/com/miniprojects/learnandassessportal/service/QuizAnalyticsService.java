@@ -0,0 +1,222 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.dto.QuizAnalyticsResponse;
+import com.miniprojects.learnandassessportal.dto.QuizResultResponse;
+import com.miniprojects.learnandassessportal.model.QuestionStat;
+import com.miniprojects.learnandassessportal.model.ScoreSummary;
+import com.miniprojects.learnandassessportal.repository.QuestionStatRepository;
+import com.miniprojects.learnandassessportal.repository.ScoreSummaryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incrementally maintained score analytics for quizzes and modules.
+ *
+ * Every evaluated submission bumps striped counters (LongAdder) for its quiz and
+ * module and a [correct, incorrect] pair per question, so dashboard reads are O(1)
+ * no matter how many attempts exist. Totals are checkpointed to the ScoreSummaries
+ * and QuestionStats tables periodically and on shutdown, and reloaded at startup.
+ */
+@Service
+public class QuizAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizAnalyticsService.class);
+
+    @Autowired
+    private ScoreSummaryRepository scoreSummaryRepository;
+
+    @Autowired
+    private QuestionStatRepository questionStatRepository;
+
+    @Autowired
+    private QuestionPoolCache questionPoolCache;
+
+    private final ConcurrentHashMap<String, ScoreCounters> scores = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicLongArray> questions = new ConcurrentHashMap<>();
+
+    // Keys touched since the last checkpoint
+    private final Set<String> dirtyScores = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyQuestions = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void load() {
+        for (ScoreSummary summary : scoreSummaryRepository.findAll()) {
+            scores.put(summary.getSummaryKey(), new ScoreCounters(summary));
+        }
+        for (QuestionStat stat : questionStatRepository.findAll()) {
+            questions.put(stat.getQuestionId(), new AtomicLongArray(new long[]{stat.getCorrectCount(), stat.getIncorrectCount()}));
+        }
+    }
+
+    /**
+     * Folds one evaluated submission into the quiz, module and per-question counters.
+     * quizId is null for randomized attempts: they draw from every quiz of the module, so
+     * they only count towards the module (question counters are per question either way).
+     */
+    public void record(Long quizId, Integer moduleId, QuizResultResponse result) {
+        if (quizId != null) {
+            add(quizKey(quizId), result);
+        }
+        if (moduleId != null) {
+            add(moduleKey(moduleId), result);
+        }
+
+        if (result.getQuestionResults() != null) {
+            for (QuizResultResponse.QuestionResult qr : result.getQuestionResults()) {
+                AtomicLongArray counts = questions.computeIfAbsent(qr.getQuestionId(), id -> new AtomicLongArray(2));
+                counts.incrementAndGet(qr.isCorrect() ? 0 : 1);
+                dirtyQuestions.add(qr.getQuestionId());
+            }
+        }
+    }
+
+    public QuizAnalyticsResponse getQuizAnalytics(Long quizId) {
+        return toResponse(scores.get(quizKey(quizId)), List.of());
+    }
+
+    /**
+     * Module aggregates plus the difficulty of every question currently in the module's pool.
+     */
+    public QuizAnalyticsResponse getModuleAnalytics(Integer moduleId) {
+        QuestionPoolCache.QuestionPool pool = questionPoolCache.getPool(moduleId);
+        List<QuizAnalyticsResponse.QuestionDifficulty> difficulty = new ArrayList<>(pool.size());
+        for (int i = 0; i < pool.size(); i++) {
+            long questionId = pool.getQuestionId(i);
+            AtomicLongArray counts = questions.get(questionId);
+            long correct = counts != null ? counts.get(0) : 0;
+            long incorrect = counts != null ? counts.get(1) : 0;
+            long answered = correct + incorrect;
+            difficulty.add(new QuizAnalyticsResponse.QuestionDifficulty(
+                    questionId, correct, incorrect, answered > 0 ? (double) correct / answered : 0));
+        }
+        return toResponse(scores.get(moduleKey(moduleId)), difficulty);
+    }
+
+    /**
+     * Writes the current totals of every touched quiz, module and question.
+     * Totals are absolute, so a checkpoint can be repeated safely.
+     */
+    @Scheduled(fixedDelayString = "${quiz.analytics.checkpoint-interval-ms:60000}")
+    @PreDestroy
+    public void checkpoint() {
+        try {
+            List<ScoreSummary> summaries = new ArrayList<>();
+            for (Iterator<String> it = dirtyScores.iterator(); it.hasNext(); ) {
+                String key = it.next();
+                it.remove(); // a concurrent update re-marks the key after this point
+                summaries.add(scores.get(key).toSummary(key));
+            }
+
+            List<QuestionStat> stats = new ArrayList<>();
+            for (Iterator<Long> it = dirtyQuestions.iterator(); it.hasNext(); ) {
+                Long questionId = it.next();
+                it.remove();
+                AtomicLongArray counts = questions.get(questionId);
+                QuestionStat stat = new QuestionStat();
+                stat.setQuestionId(questionId);
+                stat.setCorrectCount(counts.get(0));
+                stat.setIncorrectCount(counts.get(1));
+                stats.add(stat);
+            }
+
+            if (!summaries.isEmpty()) scoreSummaryRepository.saveAll(summaries);
+            if (!stats.isEmpty()) questionStatRepository.saveAll(stats);
+        } catch (Exception e) {
+            log.warn("Quiz analytics checkpoint failed, will retry: {}", e.getMessage());
+            markAllDirty();
+        }
+    }
+
+    private void markAllDirty() {
+        dirtyScores.addAll(scores.keySet());
+        dirtyQuestions.addAll(questions.keySet());
+    }
+
+    private void add(String key, QuizResultResponse result) {
+        scores.computeIfAbsent(key, k -> new ScoreCounters(null)).add(result);
+        // Marked after the update so a concurrent checkpoint can't miss it
+        dirtyScores.add(key);
+    }
+
+    private QuizAnalyticsResponse toResponse(ScoreCounters counters,
+                                             List<QuizAnalyticsResponse.QuestionDifficulty> difficulty) {
+        if (counters == null) {
+            return new QuizAnalyticsResponse(0, 0, 0, 0, 0, difficulty);
+        }
+        long attempts = counters.attempts.sum();
+        long passes = counters.passes.sum();
+        if (attempts == 0) {
+            return new QuizAnalyticsResponse(0, 0, 0, 0, 0, difficulty);
+        }
+        return new QuizAnalyticsResponse(
+                attempts,
+                passes,
+                (double) passes / attempts,
+                (double) counters.percentageSum.sum() / attempts,
+                (double) counters.scoreSum.sum() / attempts,
+                difficulty);
+    }
+
+    private static String quizKey(Long quizId) {
+        return "QUIZ:" + quizId;
+    }
+
+    private static String moduleKey(Integer moduleId) {
+        return "MODULE:" + moduleId;
+    }
+
+    /**
+     * Running totals of one quiz or module, seeded from its last checkpoint.
+     */
+    private static final class ScoreCounters {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder passes = new LongAdder();
+        final LongAdder scoreSum = new LongAdder();
+        final LongAdder questionSum = new LongAdder();
+        final LongAdder percentageSum = new LongAdder();
+
+        ScoreCounters(ScoreSummary base) {
+            if (base != null) {
+                attempts.add(base.getAttempts());
+                passes.add(base.getPasses());
+                scoreSum.add(base.getScoreSum());
+                questionSum.add(base.getQuestionSum());
+                percentageSum.add(base.getPercentageSum());
+            }
+        }
+
+        void add(QuizResultResponse result) {
+            attempts.increment();
+            if (result.isPassed()) passes.increment();
+            scoreSum.add(result.getScore());
+            questionSum.add(result.getTotalQuestions());
+            percentageSum.add(Math.round(result.getPercentage()));
+        }
+
+        ScoreSummary toSummary(String key) {
+            ScoreSummary summary = new ScoreSummary();
+            summary.setSummaryKey(key);
+            summary.setAttempts(attempts.sum());
+            summary.setPasses(passes.sum());
+            summary.setScoreSum(scoreSum.sum());
+            summary.setQuestionSum(questionSum.sum());
+            summary.setPercentageSum(percentageSum.sum());
+            summary.setUpdatedAt(LocalDateTime.now());
+            return summary;
+        }
+    }
+}
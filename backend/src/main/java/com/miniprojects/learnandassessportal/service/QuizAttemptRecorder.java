@@ -0,0 +1,317 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.dto.QuizResultResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for quiz attempts.
+ *
+ * Submissions only enqueue a small record; a background writer drains the queue
+ * and inserts attempts with JDBC batches (batch-size rows or flush-interval-ms,
+ * whichever comes first). Each batch is one transaction, so it is written completely or
+ * not at all. When the queue is full, or the database can't be reached, the rows are
+ * appended to a local spool file that the writer replays every spool-replay-interval-ms,
+ * so the student's submit latency never depends on the database. A batch rejected for its
+ * data is retried row by row, and only the rows that fail again go to the dead-letter file.
+ */
+@Service
+public class QuizAttemptRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizAttemptRecorder.class);
+
+    // The student is resolved by email inside the INSERT, so the request thread does no lookup.
+    // Joining the quiz makes an attempt at a since-deleted quiz insert nothing instead of failing.
+    private static final String INSERT_SQL =
+            "INSERT INTO quiz_attempts (quiz_id, user_id, score, total_marks, percentage, attempt_date) " +
+            "SELECT q.quiz_id, u.user_id, ?, ?, ?, ? FROM users u JOIN quizzes q ON q.quiz_id = ? " +
+            "WHERE u.email = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<PendingAttempt> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Path spoolFile;
+    private final Path deadLetterFile;
+    private final long spoolReplayIntervalMs;
+    private long nextReplayNanos;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spooled = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public QuizAttemptRecorder(@Value("${quiz.attempts.queue-capacity:10000}") int queueCapacity,
+                               @Value("${quiz.attempts.batch-size:500}") int batchSize,
+                               @Value("${quiz.attempts.flush-interval-ms:200}") long flushIntervalMs,
+                               @Value("${quiz.attempts.spool-file:quiz-attempts.spool}") String spoolFile,
+                               @Value("${quiz.attempts.dead-letter-file:quiz-attempts.dead}") String deadLetterFile,
+                               @Value("${quiz.attempts.spool-replay-interval-ms:30000}") long spoolReplayIntervalMs) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.spoolFile = Paths.get(spoolFile).toAbsolutePath().normalize();
+        this.deadLetterFile = Paths.get(deadLetterFile).toAbsolutePath().normalize();
+        this.spoolReplayIntervalMs = spoolReplayIntervalMs;
+    }
+
+    @PostConstruct
+    void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // The writer replays the spool left by a previous run first, then every replay interval
+        nextReplayNanos = System.nanoTime();
+        running = true;
+        writer = new Thread(this::drainLoop, "quiz-attempt-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Flushes everything still queued before the datasource goes away.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<PendingAttempt> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        while (!rest.isEmpty()) {
+            // flush() clears the view, which removes those rows from rest
+            flush(rest.subList(0, Math.min(rest.size(), batchSize)));
+        }
+    }
+
+    /**
+     * Records a scored attempt. Never blocks: if the queue is full the attempt goes to the spool file.
+     */
+    public void record(long quizId, String studentEmail, QuizResultResponse result) {
+        PendingAttempt attempt = new PendingAttempt(quizId, studentEmail, result.getScore(),
+                result.getTotalQuestions(), result.getPercentage(), LocalDateTime.now());
+        enqueued.incrementAndGet();
+        if (!queue.offer(attempt)) {
+            spool(List.of(attempt));
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingAttempt> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (System.nanoTime() - nextReplayNanos >= 0) {
+                    replaySpool();
+                    nextReplayNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(spoolReplayIntervalMs);
+                }
+
+                PendingAttempt first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // Collect until the batch is full or the flush interval since the first row has passed
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) break;
+                    PendingAttempt next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                // Interrupted while collecting during shutdown: write what we already hold
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(List<PendingAttempt> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            // All-or-nothing, so a failed batch can be spooled and replayed without duplicating rows
+            countRows(transactionTemplate.execute(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind)));
+        } catch (DataIntegrityViolationException e) {
+            // Some row is bad; write the others one by one rather than failing them all forever
+            failedBatches.incrementAndGet();
+            log.warn("Batch of {} quiz attempts rejected, retrying row by row: {}", batch.size(), e.getMessage());
+            flushRowByRow(batch);
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            log.warn("Failed to write {} quiz attempts, spooling them: {}", batch.size(), e.getMessage());
+            spool(batch);
+        }
+        // Rows are now in the database, the spool file or the dead-letter file
+        batch.clear();
+    }
+
+    private void flushRowByRow(List<PendingAttempt> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            PendingAttempt attempt = batch.get(i);
+            try {
+                int count = jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, attempt));
+                countRows(new int[][] {{count}});
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Dead-lettering quiz attempt of {} at quiz {}: {}",
+                        attempt.studentEmail(), attempt.quizId(), e.getMessage());
+                deadLetter(attempt);
+            } catch (Exception e) {
+                // Not this row's fault (database gone, timeout): keep the rest for the next replay
+                log.warn("Failed to write quiz attempts, spooling {} of them: {}", batch.size() - i, e.getMessage());
+                spool(batch.subList(i, batch.size()));
+                return;
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, PendingAttempt a) throws SQLException {
+        ps.setInt(1, a.score());
+        ps.setInt(2, a.totalMarks());
+        ps.setDouble(3, a.percentage());
+        ps.setTimestamp(4, Timestamp.valueOf(a.attemptDate()));
+        ps.setLong(5, a.quizId());
+        ps.setString(6, a.studentEmail());
+    }
+
+    // A count of 0 means no user had the email (account deleted since the submit)
+    private void countRows(int[][] counts) {
+        long rows = 0;
+        long missing = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count > 0) rows += count;
+                else if (count == Statement.SUCCESS_NO_INFO) rows++;
+                else missing++;
+            }
+        }
+        written.addAndGet(rows);
+        if (missing > 0) {
+            unmatched.addAndGet(missing);
+            log.warn("Dropped {} quiz attempts of unknown students or deleted quizzes", missing);
+        }
+    }
+
+    private void spool(List<PendingAttempt> attempts) {
+        if (append(spoolFile, attempts)) spooled.addAndGet(attempts.size());
+    }
+
+    private void deadLetter(PendingAttempt attempt) {
+        if (append(deadLetterFile, List.of(attempt))) deadLettered.incrementAndGet();
+    }
+
+    private synchronized boolean append(Path file, List<PendingAttempt> attempts) {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (PendingAttempt a : attempts) {
+                out.write(a.toSpoolLine());
+                out.newLine();
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Could not append {} quiz attempts to {}", attempts.size(), file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Re-inserts spooled attempts. Runs on the writer thread; rows that fail again are spooled
+     * anew. A replay file left by an interrupted run is finished before the current spool.
+     */
+    private void replaySpool() {
+        Path replay = spoolFile.resolveSibling(spoolFile.getFileName() + ".replay");
+        try {
+            if (!Files.exists(replay)) {
+                // Under the append lock, so no spool write is cut in half by the move
+                synchronized (this) {
+                    if (!Files.exists(spoolFile)) return;
+                    Files.move(spoolFile, replay);
+                }
+            }
+            List<PendingAttempt> batch = new ArrayList<>(batchSize);
+            try (BufferedReader in = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    batch.add(PendingAttempt.fromSpoolLine(line));
+                    if (batch.size() == batchSize) flush(batch);
+                }
+            }
+            flush(batch);
+            Files.delete(replay);
+            log.info("Replayed spooled quiz attempts from {}", spoolFile);
+        } catch (Exception e) {
+            log.error("Could not replay spooled quiz attempts from {}", replay, e);
+        }
+    }
+
+    // --- Pipeline metrics ---
+    public int getQueueDepth() { return queue.size(); }
+    public int getQueueCapacity() { return queue.size() + queue.remainingCapacity(); }
+    public long getEnqueuedCount() { return enqueued.get(); }
+    public long getWrittenCount() { return written.get(); }
+    public long getSpooledCount() { return spooled.get(); }
+    public long getFailedBatchCount() { return failedBatches.get(); }
+    public long getUnmatchedCount() { return unmatched.get(); }
+    public long getDeadLetteredCount() { return deadLettered.get(); }
+
+    record PendingAttempt(long quizId, String studentEmail, int score, int totalMarks,
+                          double percentage, LocalDateTime attemptDate) {
+
+        String toSpoolLine() {
+            return quizId + "\t" + studentEmail + "\t" + score + "\t" + totalMarks + "\t"
+                    + percentage + "\t" + attemptDate;
+        }
+
+        static PendingAttempt fromSpoolLine(String line) {
+            String[] f = line.split("\t");
+            return new PendingAttempt(Long.parseLong(f[0]), f[1], Integer.parseInt(f[2]),
+                    Integer.parseInt(f[3]), Double.parseDouble(f[4]), LocalDateTime.parse(f[5]));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.miniprojects.learnandassessportal.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-side state of randomized quiz attempts, keyed by an opaque attempt token.
+ *
+ * Each session remembers which questions were drawn and where the correct option
+ * ended up after shuffling, so a submission can be scored without loading any quiz.
+ * Sessions expire after a fixed TTL; because every session has the same TTL, insertion
+ * order is also expiry order and eviction only ever looks at the head of a FIFO queue.
+ * Sessions belong to the student who drew them, and each student has at most one live
+ * session per module: drawing a new quiz replaces the previous one. Other live sessions
+ * are never evicted: when max-sessions attempts are in progress, new attempts are refused
+ * with 503 until some finish or expire.
+ */
+@Service
+public class QuizAttemptSessionStore {
+
+    private final long ttlNanos;
+    private final int maxSessions;
+
+    private final ConcurrentHashMap<String, AttemptSession> sessions = new ConcurrentHashMap<>();
+    // "username|moduleId" -> token of that student's current attempt in the module
+    private final ConcurrentHashMap<String, String> currentByStudent = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public QuizAttemptSessionStore(@Value("${quiz.attempt.ttl-minutes:120}") long ttlMinutes,
+                                   @Value("${quiz.attempt.max-sessions:50000}") int maxSessions) {
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Registers a new attempt of the student and returns its token. The student's previous
+     * attempt in the same module, if still open, can no longer be submitted.
+     */
+    public String create(String username, Integer moduleId, long quizId, long[] questionIds,
+                         byte[] correctIndex, String[] questionTexts) {
+        long now = System.nanoTime();
+        evict(now);
+
+        String studentKey = username + "|" + moduleId;
+        String previous = currentByStudent.get(studentKey);
+        if (previous != null) {
+            sessions.remove(previous);
+        }
+        if (sessions.size() >= maxSessions) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many quiz attempts in progress, try again later");
+        }
+
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, new AttemptSession(username, moduleId, quizId, questionIds, correctIndex,
+                questionTexts, now + ttlNanos));
+        // Two concurrent draws of one student: whichever registers last is the current one
+        previous = currentByStudent.put(studentKey, token);
+        if (previous != null && !previous.equals(token)) {
+            sessions.remove(previous);
+        }
+        insertionOrder.add(token);
+        queued.incrementAndGet();
+        return token;
+    }
+
+    /**
+     * Returns the live session for a token, or null if it is unknown or expired.
+     */
+    public AttemptSession get(String token) {
+        if (token == null) return null;
+        AttemptSession session = sessions.get(token);
+        if (session == null) return null;
+        if (session.expiresAt() - System.nanoTime() <= 0) {
+            remove(token, session);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Removes a session so it cannot be submitted twice.
+     * Returns false if another request consumed it first.
+     */
+    public boolean consume(String token, AttemptSession session) {
+        return remove(token, session);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // Only evictors take tokens off the queue, so under this lock the head we checked is the one we poll
+    private synchronized void evict(long now) {
+        String head;
+        while ((head = insertionOrder.peek()) != null) {
+            AttemptSession session = sessions.get(head);
+            if (session != null && session.expiresAt() - now > 0) {
+                break;
+            }
+            insertionOrder.poll();
+            queued.decrementAndGet();
+            if (session != null) {
+                remove(head, session);
+            }
+        }
+
+        // Submitted attempts leave their token queued behind older live ones; drop them now and then
+        if (queued.get() > 2 * maxSessions) {
+            for (Iterator<String> it = insertionOrder.iterator(); it.hasNext(); ) {
+                if (!sessions.containsKey(it.next())) {
+                    it.remove();
+                    queued.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private boolean remove(String token, AttemptSession session) {
+        boolean removed = sessions.remove(token, session);
+        currentByStudent.remove(session.username() + "|" + session.moduleId(), token);
+        return removed;
+    }
+
+    /**
+     * One randomized attempt: the student it was drawn for, question IDs in the order they were shown, the
+     * shuffled position (0-3, -1 if unknown) of each correct option, and the
+     * question texts needed for the result breakdown.
+     */
+    public record AttemptSession(String username,
+                                 Integer moduleId,
+                                 long quizId,
+                                 long[] questionIds,
+                                 byte[] correctIndex,
+                                 String[] questionTexts,
+                                 long expiresAt) {
+    }
+}
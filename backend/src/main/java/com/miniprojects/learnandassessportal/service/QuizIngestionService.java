@@ -0,0 +1,116 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.model.Module;
+import com.miniprojects.learnandassessportal.model.Question;
+import com.miniprojects.learnandassessportal.model.Quiz;
+import com.miniprojects.learnandassessportal.repository.ModuleRepository;
+import com.miniprojects.learnandassessportal.repository.QuizRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming ingestion of large quiz banks.
+ *
+ * The quiz row is inserted first; the file's text then flows page by page into
+ * QuizTextParser and every parsed question goes straight into a JDBC batch, so
+ * neither the full text nor the full question list is ever held in memory and
+ * insert time grows linearly with the bank size. Everything runs in one
+ * transaction: a bank without any valid question leaves nothing behind.
+ */
+@Service
+public class QuizIngestionService {
+
+    // Plain JDBC batches, for the same reason as lessons in BulkUploadService: Hibernate
+    // won't batch IDENTITY inserts, and the generated question IDs aren't needed here.
+    private static final String INSERT_QUESTION_SQL =
+            "INSERT INTO questions (question_text, optiona, optionb, optionc, optiond, correct_option, quiz_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired private QuizUploadService quizUploadService;
+    @Autowired private ExtractionCache extractionCache;
+    @Autowired private QuizRepository quizRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private ContentVersions contentVersions;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Value("${quiz.ingestion.batch-size:500}")
+    private int batchSize;
+
+    public record IngestionResult(Quiz quiz, int questionsCount) {}
+
+    @Transactional
+    public IngestionResult ingest(Integer moduleId, MultipartFile file, String title, String description) {
+        quizUploadService.validateFile(file);
+        Module module = moduleRepository.findById(moduleId)
+                .orElseThrow(() -> new RuntimeException("Module not found with id: " + moduleId));
+
+        Quiz quiz = new Quiz();
+        quiz.setTitle(title);
+        quiz.setDescription(description);
+        quiz.setModule(module);
+        quiz = quizRepository.save(quiz);
+
+        QuestionBatch batch = new QuestionBatch(quiz.getQuizId());
+        try {
+            // A bank that was just previewed is already parsed
+            List<Question> cached = extractionCache.getQuestions(extractionCache.keyOf(file));
+            if (cached != null) {
+                cached.forEach(batch::add);
+            } else {
+                QuizTextParser parser = new QuizTextParser(batch::add);
+                quizUploadService.extractInto(file, parser);
+                parser.finish();
+                if (batch.count == 0) {
+                    throw QuizUploadService.noQuestionsFound(parser.usedFallback());
+                }
+            }
+            batch.flush();
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to process uploaded file: " + e.getMessage(), e);
+        }
+
+        // Drops the module's question pool after commit, too
+        contentVersions.bumpModule(moduleId);
+        return new IngestionResult(quiz, batch.count);
+    }
+
+    /**
+     * Buffers question rows and writes them batch-size at a time.
+     */
+    private class QuestionBatch {
+        final long quizId;
+        final List<Object[]> rows = new ArrayList<>(batchSize);
+        int count;
+
+        QuestionBatch(long quizId) {
+            this.quizId = quizId;
+        }
+
+        void add(Question q) {
+            rows.add(new Object[]{
+                    q.getQuestionText(), q.getOptionA(), q.getOptionB(),
+                    q.getOptionC(), q.getOptionD(), q.getCorrectOption(), quizId
+            });
+            count++;
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_QUESTION_SQL, rows);
+                rows.clear();
+            }
+        }
+    }
+}
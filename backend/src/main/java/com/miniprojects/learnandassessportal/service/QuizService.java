@@ -1,18 +1,27 @@
 package com.miniprojects.learnandassessportal.service;
 
 import com.miniprojects.learnandassessportal.dto.QuizResultResponse;
+import com.miniprojects.learnandassessportal.dto.RandomQuizResponse;
+import com.miniprojects.learnandassessportal.dto.StudentQuestionView;
 import com.miniprojects.learnandassessportal.dto.QuizSubmissionRequest;
 import com.miniprojects.learnandassessportal.model.Module;
 import com.miniprojects.learnandassessportal.model.Question;
 import com.miniprojects.learnandassessportal.model.Quiz;
 import com.miniprojects.learnandassessportal.repository.ModuleRepository;
+import com.miniprojects.learnandassessportal.repository.QuizAttemptRepository;
 import com.miniprojects.learnandassessportal.repository.QuizRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
+@Timed(value = "app.service", histogram = true)
 public class QuizService {
 
     @Autowired
@@ -21,6 +30,21 @@ public class QuizService {
     @Autowired
     private ModuleRepository moduleRepository;
 
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private QuestionPoolCache questionPoolCache;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private QuizAttemptSessionStore attemptSessionStore;
+
+    @Autowired
+    private QuizAnalyticsService quizAnalyticsService;
+
     /**
      * Save a quiz (instructor uploads questions and persists them).
      */
@@ -37,7 +61,9 @@ public class QuizService {
             }
         }
 
-        return quizRepository.save(quiz);
+        Quiz saved = quizRepository.save(quiz);
+        contentVersions.bumpModule(moduleId);
+        return saved;
     }
 
     /**
@@ -56,116 +82,79 @@ public class QuizService {
     }
 
     /**
-     * Get a randomized quiz for a student attempt.
-     * Pools all questions from all quizzes in the module,
-     * randomly selects up to numQuestions, randomizes question order,
-     * and randomizes option order for each question.
+     * Get a quiz of the given module; 404 if it doesn't exist or belongs to another module.
      */
-    public Quiz getRandomizedQuizForModule(Integer moduleId, int numQuestions) {
-        List<Quiz> quizzes = quizRepository.findByModule_ModuleId(moduleId);
-        if (quizzes.isEmpty()) {
-            return null;
-        }
-
-        // Pool all questions from all quizzes in this module
-        List<Question> allQuestions = new ArrayList<>();
-        for (Quiz q : quizzes) {
-            if (q.getQuestions() != null) {
-                allQuestions.addAll(q.getQuestions());
-            }
-        }
-
-        if (allQuestions.isEmpty()) {
-            return null;
+    public Quiz getQuizInModule(Integer moduleId, Long quizId) {
+        Quiz quiz = quizRepository.findById(quizId).orElse(null);
+        // The module is a lazy proxy; reading its ID doesn't load it
+        if (quiz == null || !quiz.getModule().getModuleId().equals(moduleId)) {
+            throw quizNotInModule(moduleId, quizId);
         }
+        return quiz;
+    }
 
-        // Shuffle and pick random questions
-        Collections.shuffle(allQuestions);
-        int count = Math.min(numQuestions, allQuestions.size());
-        List<Question> selectedQuestions = new ArrayList<>(allQuestions.subList(0, count));
-
-        // Randomize option order for each selected question
-        Random random = new Random();
-        for (Question q : selectedQuestions) {
-            randomizeOptions(q, random);
+    /**
+     * 404 unless the quiz belongs to the module; reads only the quiz's module ID.
+     */
+    public void requireQuizInModule(Integer moduleId, Long quizId) {
+        if (!quizRepository.findModuleIdByQuizId(quizId).map(moduleId::equals).orElse(false)) {
+            throw quizNotInModule(moduleId, quizId);
         }
+    }
 
-        // Build a virtual quiz (not persisted) for the student
-        Quiz randomQuiz = new Quiz();
-        randomQuiz.setQuizId(quizzes.get(0).getQuizId()); // Use the first quiz ID for submission
-        randomQuiz.setTitle("Module Quiz");
-        randomQuiz.setDescription("Randomized quiz from uploaded question pool");
-        randomQuiz.setQuestions(selectedQuestions);
-
-        return randomQuiz;
+    private static ResponseStatusException quizNotInModule(Integer moduleId, Long quizId) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Quiz " + quizId + " not found in module " + moduleId);
     }
 
     /**
-     * Randomizes the order of options (A, B, C, D) for a question.
-     * Updates the correctOption field to match the new position.
+     * Get a randomized quiz for a student attempt.
+     * Draws from the cached question pool of all quizzes in the module,
+     * randomly selects up to numQuestions, randomizes question order,
+     * and randomizes option order for each question. The attempt belongs to username
+     * and replaces that student's previous open attempt in the module.
      */
-    private void randomizeOptions(Question question, Random random) {
-        // Collect current options with their original keys
-        List<String[]> options = new ArrayList<>();
-        if (question.getOptionA() != null && !question.getOptionA().isEmpty()) {
-            options.add(new String[]{"A", question.getOptionA()});
-        }
-        if (question.getOptionB() != null && !question.getOptionB().isEmpty()) {
-            options.add(new String[]{"B", question.getOptionB()});
-        }
-        if (question.getOptionC() != null && !question.getOptionC().isEmpty()) {
-            options.add(new String[]{"C", question.getOptionC()});
-        }
-        if (question.getOptionD() != null && !question.getOptionD().isEmpty()) {
-            options.add(new String[]{"D", question.getOptionD()});
+    public RandomQuizResponse getRandomizedQuizForModule(Integer moduleId, int numQuestions, String username) {
+        QuestionPoolCache.QuestionPool pool = questionPoolCache.getPool(moduleId);
+        if (pool.isEmpty()) {
+            return null;
         }
 
-        if (options.size() < 2) return; // Need at least 2 options to shuffle
-
-        String correctKey = question.getCorrectOption().toUpperCase();
-
-        // Shuffle options
-        Collections.shuffle(options, random);
-
-        // Assign shuffled options back to A, B, C, D
-        String[] keys = {"A", "B", "C", "D"};
-        String newCorrectOption = null;
-
-        for (int i = 0; i < options.size(); i++) {
-            String originalKey = options.get(i)[0];
-            String optionText = options.get(i)[1];
-
-            switch (keys[i]) {
-                case "A" -> question.setOptionA(optionText);
-                case "B" -> question.setOptionB(optionText);
-                case "C" -> question.setOptionC(optionText);
-                case "D" -> question.setOptionD(optionText);
-            }
-
-            if (originalKey.equals(correctKey)) {
-                newCorrectOption = keys[i];
-            }
+        // Draw random questions from the cached pool (O(numQuestions), no DB access)
+        Random random = ThreadLocalRandom.current();
+        int[] picked = pool.sample(numQuestions, random);
+        List<StudentQuestionView> selectedQuestions = new ArrayList<>(picked.length);
+        long[] questionIds = new long[picked.length];
+        byte[] correctIndex = new byte[picked.length];
+        String[] questionTexts = new String[picked.length];
+
+        // Shuffle each question's options as a packed permutation; pool entries are never modified
+        for (int n = 0; n < picked.length; n++) {
+            int i = picked[n];
+            byte permutation = pool.shuffleOptions(i, random);
+            selectedQuestions.add(pool.toView(i, permutation));
+
+            questionIds[n] = pool.getQuestionId(i);
+            correctIndex[n] = (byte) pool.shuffledCorrectIndex(i, permutation);
+            questionTexts[n] = pool.getQuestionText(i);
         }
 
-        // Clear unused option slots
-        for (int i = options.size(); i < 4; i++) {
-            switch (keys[i]) {
-                case "A" -> question.setOptionA("");
-                case "B" -> question.setOptionB("");
-                case "C" -> question.setOptionC("");
-                case "D" -> question.setOptionD("");
-            }
-        }
+        // Remember the drawn questions and shuffled answers so the submission is scored from memory
+        long quizId = pool.getFirstQuizId(); // Use the first quiz ID for submission
+        String attemptToken = attemptSessionStore.create(username, moduleId, quizId, questionIds, correctIndex, questionTexts);
 
-        if (newCorrectOption != null) {
-            question.setCorrectOption(newCorrectOption);
-        }
+        // Build a virtual quiz (not persisted) for the student
+        return new RandomQuizResponse(quizId, "Module Quiz",
+                "Randomized quiz from uploaded question pool", attemptToken, selectedQuestions);
     }
 
     /**
      * Evaluate a student's quiz submission and return the result.
      */
-    public QuizResultResponse evaluateQuiz(Long quizId, QuizSubmissionRequest submission) {
+    public QuizResultResponse evaluateQuiz(Long quizId, QuizSubmissionRequest submission, String username) {
+        if (submission.getAttemptToken() != null) {
+            return evaluateAttempt(quizId, submission, username);
+        }
+
         Quiz quiz = getQuizById(quizId);
         List<Question> questions = quiz.getQuestions();
         Map<Long, String> answers = submission.getAnswers();
@@ -194,16 +183,75 @@ public class QuizService {
         double percentage = total > 0 ? Math.round((double) correctCount / total * 100.0) : 0;
         boolean passed = percentage >= 50;
 
-        return new QuizResultResponse(correctCount, total, percentage, passed, questionResults);
+        QuizResultResponse result = new QuizResultResponse(correctCount, total, percentage, passed, questionResults);
+        quizAnalyticsService.record(quizId, quiz.getModule().getModuleId(), result);
+        return result;
     }
 
     /**
-     * Delete a quiz by its ID.
+     * Scores a randomized attempt straight from its session: one array compare per
+     * drawn question, no entity loads. The session is consumed so it can't be resubmitted.
      */
-    public void deleteQuiz(Long quizId) {
-        if (!quizRepository.existsById(quizId)) {
-            throw new RuntimeException("Quiz not found with id: " + quizId);
+    private QuizResultResponse evaluateAttempt(Long quizId, QuizSubmissionRequest submission, String username) {
+        String token = submission.getAttemptToken();
+        QuizAttemptSessionStore.AttemptSession session = attemptSessionStore.get(token);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Quiz attempt has expired or was already submitted");
         }
-        quizRepository.deleteById(quizId);
+        if (!session.username().equals(username)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Quiz attempt belongs to another user");
+        }
+        if (session.quizId() != quizId) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quiz attempt does not belong to quiz " + quizId);
+        }
+        if (!attemptSessionStore.consume(token, session)) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Quiz attempt has expired or was already submitted");
+        }
+
+        Map<Long, String> answers = submission.getAnswers() != null ? submission.getAnswers() : Map.of();
+        long[] questionIds = session.questionIds();
+        byte[] correctIndex = session.correctIndex();
+
+        int correctCount = 0;
+        List<QuizResultResponse.QuestionResult> questionResults = new ArrayList<>(questionIds.length);
+
+        for (int i = 0; i < questionIds.length; i++) {
+            String selectedOption = answers.getOrDefault(questionIds[i], "");
+            int correct = correctIndex[i];
+            boolean isCorrect = correct >= 0
+                    && correct == QuestionPoolCache.QuestionPool.optionIndex(selectedOption);
+
+            if (isCorrect) {
+                correctCount++;
+            }
+
+            questionResults.add(new QuizResultResponse.QuestionResult(
+                    questionIds[i],
+                    session.questionTexts()[i],
+                    selectedOption,
+                    QuestionPoolCache.QuestionPool.letter(correct),
+                    isCorrect
+            ));
+        }
+
+        int total = questionIds.length;
+        double percentage = total > 0 ? Math.round((double) correctCount / total * 100.0) : 0;
+        boolean passed = percentage >= 50;
+
+        QuizResultResponse result = new QuizResultResponse(correctCount, total, percentage, passed, questionResults);
+        // Drawn from the whole module, so it is not an attempt at quizId
+        quizAnalyticsService.record(null, session.moduleId(), result);
+        return result;
+    }
+
+    /**
+     * Delete a quiz by its ID, together with its recorded attempts.
+     */
+    @Transactional
+    public void deleteQuiz(Long quizId) {
+        Quiz quiz = getQuizById(quizId);
+        quizAttemptRepository.deleteByQuizId(quizId);
+        quizRepository.delete(quiz);
+        contentVersions.bumpModule(quiz.getModule().getModuleId());
     }
 }
@@ -0,0 +1,292 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.model.Question;
+
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Line-oriented parser for uploaded quiz banks (formats documented on QuizUploadService).
+ *
+ * Text is scanned forward once, line start by line start. Each line start is tested
+ * for a question start; a question block is parsed as soon as the next start (or the
+ * end of the text) closes it, and the finished Question is handed to the sink.
+ * All expressions are compiled once and anchored with lookingAt() at line starts, which
+ * is exactly what the (?m)^ patterns of the previous per-block regex parser matched,
+ * so the output is the same question for question.
+ *
+ * Text can be fed in pieces (e.g. one PDF page at a time); only the current block and
+ * the unparsed tail are buffered. Text without any numbered/Q-prefixed question is parsed
+ * with the blank-line fallback at finish(), which needs the whole text.
+ */
+public final class QuizTextParser {
+
+    private static final Pattern QUESTION_START = Pattern.compile(
+            "\\s*(?:(?:Q(?:uestion)?\\s*\\d*\\s*[:.)])|(?:\\d+\\s*[.)]))\\s*",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern OPTION = Pattern.compile(
+            "\\s*(?:\\(?([A-Da-d])\\)?[.):\\s]|([A-Da-d])\\s*[.):]\\s*)(.+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ANSWER = Pattern.compile(
+            "\\s*(?:correct\\s+)?answer\\s*[:\\-=]\\s*(?:\\(?([A-Da-d])\\)?|option\\s+([A-Da-d]))",
+            Pattern.CASE_INSENSITIVE);
+
+    // Option marked with asterisks, e.g. "B) *Paris*"
+    private static final Pattern ASTERISK_ANSWER = Pattern.compile(
+            "\\s*(?:\\(?([A-Da-d])\\)?[.):\\s])\\s*\\*(.+?)\\*?$",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+    // Case-sensitive, as it always was
+    private static final Pattern NUMBER_PREFIX = Pattern.compile(
+            "^\\s*(?:Q(?:uestion)?\\s*\\d*\\s*[:.)]|\\d+\\s*[.)])\\s*");
+
+    private static final Pattern TRAILING_ANSWER = Pattern.compile(
+            "(?i)\\s*(?:correct\\s+)?answer\\s*[:\\-=].*$");
+
+    private final Consumer<Question> sink;
+    private final StringBuilder buf = new StringBuilder();
+
+    private final Matcher startMatcher = QUESTION_START.matcher(buf);
+    private final Matcher optionMatcher = OPTION.matcher(buf);
+    private final Matcher answerMatcher = ANSWER.matcher(buf);
+    private final Matcher asteriskMatcher = ASTERISK_ANSWER.matcher(buf);
+
+    private int lineStart;       // next line start to test for a question start
+    private int searchFrom;      // end of the last question-start match; starts inside it don't count
+    private int blockStart = -1; // start of the open question block, -1 before the first one
+    private boolean pendingCarriageReturn;
+    private boolean finished;
+    private boolean usedFallback;
+    private int questionCount;
+
+    public QuizTextParser(Consumer<Question> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Appends text and emits every question whose block is now complete.
+     */
+    public void feed(CharSequence text) {
+        if (finished) throw new IllegalStateException("Parser already finished");
+        appendNormalized(text);
+        scan();
+    }
+
+    /**
+     * Parses whatever is left. Call once, after the last feed().
+     */
+    public void finish() {
+        if (finished) return;
+        if (pendingCarriageReturn) {
+            buf.append('\n');
+            pendingCarriageReturn = false;
+        }
+        finished = true;
+        scan();
+
+        if (blockStart >= 0) {
+            parseBlock(blockStart, buf.length());
+        } else {
+            usedFallback = true;
+            parseFallback();
+        }
+        buf.setLength(0);
+    }
+
+    /**
+     * True when the text had no question starts and blank-line separated blocks were parsed instead.
+     */
+    public boolean usedFallback() {
+        return usedFallback;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    // Same as replace("\r\n", "\n").replace("\r", "\n"), also across feed() boundaries
+    private void appendNormalized(CharSequence text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (pendingCarriageReturn) {
+                pendingCarriageReturn = false;
+                buf.append('\n');
+                if (c == '\n') continue;
+            }
+            if (c == '\r') {
+                pendingCarriageReturn = true;
+            } else {
+                buf.append(c);
+            }
+        }
+    }
+
+    private void scan() {
+        int length = buf.length();
+        while (lineStart < length) {
+            if (lineStart >= searchFrom) {
+                startMatcher.region(lineStart, length);
+                boolean found = startMatcher.lookingAt();
+                if (startMatcher.hitEnd() && !finished) {
+                    return; // the match could still change with more text
+                }
+                if (found) {
+                    int end = startMatcher.end();
+                    startBlock(lineStart);
+                    // startBlock may have compacted the buffer
+                    end -= length - buf.length();
+                    length = buf.length();
+                    searchFrom = end;
+                }
+            }
+            int next = indexOfLineTerminator(lineStart, length);
+            if (next < 0) {
+                if (!finished) return;
+                break;
+            }
+            lineStart = next + 1;
+        }
+    }
+
+    private void startBlock(int start) {
+        if (blockStart >= 0) {
+            parseBlock(blockStart, start);
+        }
+        blockStart = start;
+
+        // Drop parsed text once it is the larger part of the buffer (keeps compaction amortized O(1))
+        if (blockStart > buf.length() / 2) {
+            int shift = blockStart;
+            buf.delete(0, shift);
+            blockStart = 0;
+            lineStart -= shift;
+            searchFrom = Math.max(0, searchFrom - shift);
+        }
+    }
+
+    /**
+     * Parses buf[from, to) as one question block; emits it when it is complete.
+     */
+    private void parseBlock(int from, int to) {
+        // block.trim()
+        while (from < to && buf.charAt(from) <= ' ') from++;
+        while (to > from && buf.charAt(to - 1) <= ' ') to--;
+        if (from == to) return;
+
+        int firstOptionStart = -1;
+        int optionFrom = from;
+        String optionA = null, optionB = null, optionC = null, optionD = null;
+        String answer = null;
+        String asteriskAnswer = null;
+
+        for (int ls = from; ls >= 0 && ls < to; ls = nextLineStart(ls, to)) {
+            if (ls >= optionFrom) {
+                optionMatcher.region(ls, to);
+                if (optionMatcher.lookingAt()) {
+                    if (firstOptionStart < 0) firstOptionStart = ls;
+                    String letter = (optionMatcher.group(1) != null ? optionMatcher.group(1) : optionMatcher.group(2))
+                            .toUpperCase();
+                    String text = optionMatcher.group(3).trim();
+                    switch (letter) {
+                        case "A" -> optionA = text;
+                        case "B" -> optionB = text;
+                        case "C" -> optionC = text;
+                        case "D" -> optionD = text;
+                    }
+                    optionFrom = optionMatcher.end();
+                }
+            }
+            if (answer == null) {
+                answerMatcher.region(ls, to);
+                if (answerMatcher.lookingAt()) {
+                    answer = (answerMatcher.group(1) != null ? answerMatcher.group(1) : answerMatcher.group(2))
+                            .toUpperCase();
+                } else if (asteriskAnswer == null) {
+                    asteriskMatcher.region(ls, to);
+                    if (asteriskMatcher.lookingAt()) {
+                        asteriskAnswer = asteriskMatcher.group(1).toUpperCase();
+                    }
+                }
+            }
+        }
+
+        if (firstOptionStart < 0) return; // No options found
+
+        // Question text is everything before the first option, minus the number prefix
+        String questionText = buf.substring(from, firstOptionStart).trim();
+        questionText = NUMBER_PREFIX.matcher(questionText).replaceFirst("").trim();
+        if (questionText.isEmpty()) return;
+
+        // Must have at least options A and B
+        if (optionA == null || optionB == null) return;
+
+        String correctOption = answer != null ? answer : asteriskAnswer;
+        if (correctOption == null) return; // Can't determine correct answer
+
+        // Remove a trailing "Answer: X" that ended up on the D option line
+        if (optionD != null) {
+            optionD = TRAILING_ANSWER.matcher(optionD).replaceAll("").trim();
+        }
+
+        Question question = new Question();
+        question.setQuestionText(questionText);
+        question.setOptionA(optionA);
+        question.setOptionB(optionB);
+        question.setOptionC(optionC != null ? optionC : "");
+        question.setOptionD(optionD != null ? optionD : "");
+        question.setCorrectOption(correctOption);
+
+        questionCount++;
+        sink.accept(question);
+    }
+
+    /**
+     * Blocks separated by blank lines, for files without question numbering.
+     */
+    private void parseFallback() {
+        int length = buf.length();
+        int segmentStart = 0;
+        int pos = 0;
+        while (pos < length) {
+            int eol = buf.indexOf("\n", pos);
+            int lineEnd = eol < 0 ? length : eol;
+            // A whitespace-only line between two newlines separates blocks
+            if (eol >= 0 && pos > 0 && isBlank(pos, lineEnd)) {
+                if (pos - 1 > segmentStart) parseBlock(segmentStart, pos - 1);
+                segmentStart = eol + 1;
+            }
+            pos = lineEnd + 1;
+        }
+        if (segmentStart < length) {
+            parseBlock(segmentStart, length);
+        }
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = buf.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != 0x0B && c != '\f' && c != '\r') return false;
+        }
+        return true;
+    }
+
+    // Line terminators as java.util.regex sees them (after \r normalization)
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private int indexOfLineTerminator(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (isLineTerminator(buf.charAt(i))) return i;
+        }
+        return -1;
+    }
+
+    private int nextLineStart(int from, int to) {
+        int terminator = indexOfLineTerminator(from, to);
+        return terminator < 0 ? -1 : terminator + 1;
+    }
+}
@@ -1,20 +1,19 @@
 package com.miniprojects.learnandassessportal.service;
 
 import com.miniprojects.learnandassessportal.model.Question;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import io.micrometer.core.annotation.Timed;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Service for parsing quiz questions from uploaded PDF or DOCX files.
@@ -46,11 +45,21 @@ import java.util.regex.Pattern;
  *   Correct Answer: A
  */
 @Service
+@Timed(value = "app.service", histogram = true)
 public class QuizUploadService {
 
     @Value("${quiz.upload.max-size-mb:50}")
     private int maxUploadSizeMb;
 
+    @Autowired
+    private PdfTextExtractor pdfTextExtractor;
+
+    @Autowired
+    private ExtractionCache extractionCache;
+
+    @Autowired
+    private ExtractionMetrics extractionMetrics;
+
     private static final List<String> SUPPORTED_EXTENSIONS = List.of("pdf", "docx");
 
     /**
@@ -87,22 +96,67 @@ public class QuizUploadService {
         String originalName = file.getOriginalFilename();
         if (originalName == null) throw new IllegalArgumentException("File name is missing.");
 
-        String lowerName = originalName.toLowerCase();
+        String format = formatOf(originalName);
+        long started = System.nanoTime();
+        String text = null;
+        try {
+            text = switch (format) {
+                case "pdf" -> extractFromPdf(file.getInputStream());
+                case "docx" -> extractFromDocx(file.getInputStream());
+                default -> throw new IllegalArgumentException("Unsupported file type. Only PDF and DOCX are supported.");
+            };
+            return text;
+        } finally {
+            extractionMetrics.record("quiz", format, file.getSize(), text != null ? text.length() : 0,
+                    System.nanoTime() - started, text != null);
+        }
+    }
 
-        if (lowerName.endsWith(".pdf")) {
-            return extractFromPdf(file.getInputStream());
-        } else if (lowerName.endsWith(".docx")) {
-            return extractFromDocx(file.getInputStream());
-        } else {
-            throw new IllegalArgumentException("Unsupported file type. Only PDF and DOCX are supported.");
+    /**
+     * Streams the file's text into the parser without building the whole text:
+     * PDFs page by page, DOCX paragraph by paragraph.
+     */
+    public void extractInto(MultipartFile file, QuizTextParser parser) throws Exception {
+        String format = formatOf(file.getOriginalFilename() != null ? file.getOriginalFilename() : "");
+        long started = System.nanoTime();
+        long[] chars = {0};
+        boolean ok = false;
+        try {
+            switch (format) {
+                case "pdf" -> pdfTextExtractor.extractPages(file.getInputStream(), (pageNumber, pageText) -> {
+                    chars[0] += pageText.length();
+                    parser.feed(pageText);
+                    return true;
+                });
+                case "docx" -> {
+                    try (XWPFDocument document = new XWPFDocument(file.getInputStream())) {
+                        for (XWPFParagraph paragraph : document.getParagraphs()) {
+                            String text = paragraph.getText();
+                            chars[0] += text.length() + 1;
+                            parser.feed(text);
+                            parser.feed("\n");
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported file type. Only PDF and DOCX are supported.");
+            }
+            ok = true;
+        } finally {
+            extractionMetrics.record("quiz", format, file.getSize(), chars[0], System.nanoTime() - started, ok);
         }
     }
 
+    private static String formatOf(String fileName) {
+        String lowerName = fileName.toLowerCase();
+        if (lowerName.endsWith(".pdf")) return "pdf";
+        if (lowerName.endsWith(".docx")) return "docx";
+        return "other";
+    }
+
     private String extractFromPdf(InputStream inputStream) throws Exception {
-        try (PDDocument document = PDDocument.load(inputStream)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
-        }
+        StringWriter text = new StringWriter();
+        pdfTextExtractor.extract(inputStream, text);
+        return text.toString();
     }
 
     private String extractFromDocx(InputStream inputStream) throws Exception {
@@ -125,181 +179,27 @@ public class QuizUploadService {
         }
 
         List<Question> questions = new ArrayList<>();
-
-        // Normalize line endings
-        text = text.replace("\r\n", "\n").replace("\r", "\n");
-
-        // Split text into question blocks.
-        // A question block starts with a question pattern.
-        // Question patterns:
-        //   - 1. question text  OR  1) question text
-        //   - Q1: question text  OR  Q1. question text
-        //   - Q: question text
-        //   - Question 1: question text
-        Pattern questionStartPattern = Pattern.compile(
-                "(?m)^\\s*(?:(?:Q(?:uestion)?\\s*\\d*\\s*[:.)])|(?:\\d+\\s*[.)]))\\s*",
-                Pattern.CASE_INSENSITIVE
-        );
-
-        // Split into blocks by finding question starts
-        Matcher startMatcher = questionStartPattern.matcher(text);
-        List<Integer> questionStarts = new ArrayList<>();
-        while (startMatcher.find()) {
-            questionStarts.add(startMatcher.start());
-        }
-
-        if (questionStarts.isEmpty()) {
-            // Try alternate parsing: look for answer patterns to detect question blocks
-            return parseQuestionsFallback(text);
-        }
-
-        for (int i = 0; i < questionStarts.size(); i++) {
-            int blockStart = questionStarts.get(i);
-            int blockEnd = (i + 1 < questionStarts.size()) ? questionStarts.get(i + 1) : text.length();
-            String block = text.substring(blockStart, blockEnd).trim();
-
-            Question q = parseQuestionBlock(block);
-            if (q != null) {
-                questions.add(q);
-            }
-        }
+        QuizTextParser parser = new QuizTextParser(questions::add);
+        parser.feed(text);
+        parser.finish();
 
         if (questions.isEmpty()) {
-            throw new IllegalArgumentException(
-                    "Could not parse any valid questions from the file. " +
-                    "Please ensure questions follow the expected format: " +
-                    "numbered question, options A-D, and an answer line (e.g., 'Answer: A').");
+            throw noQuestionsFound(parser.usedFallback());
         }
-
         return questions;
     }
 
-    /**
-     * Parses a single question block into a Question object.
-     */
-    private Question parseQuestionBlock(String block) {
-        // Extract question text (everything before the first option)
-        Pattern optionPattern = Pattern.compile(
-                "(?m)^\\s*(?:\\(?([A-Da-d])\\)?[.):\\s]|([A-Da-d])\\s*[.):]\\s*)(.+)",
-                Pattern.CASE_INSENSITIVE
-        );
-
-        // Find first option to split question text from options
-        Matcher firstOptionMatcher = optionPattern.matcher(block);
-        if (!firstOptionMatcher.find()) {
-            return null; // No options found
-        }
-
-        // Question text is everything before the first option
-        String questionText = block.substring(0, firstOptionMatcher.start()).trim();
-        // Remove the question number prefix
-        questionText = questionText.replaceFirst(
-                "^\\s*(?:Q(?:uestion)?\\s*\\d*\\s*[:.)]|\\d+\\s*[.)])\\s*", "").trim();
-
-        if (questionText.isEmpty()) {
-            return null;
-        }
-
-        // Extract all options
-        String optionA = null, optionB = null, optionC = null, optionD = null;
-        Matcher optMatcher = optionPattern.matcher(block);
-        while (optMatcher.find()) {
-            String optionLetter = (optMatcher.group(1) != null ? optMatcher.group(1) : optMatcher.group(2))
-                    .toUpperCase();
-            String optionText = optMatcher.group(3).trim();
-
-            switch (optionLetter) {
-                case "A" -> optionA = optionText;
-                case "B" -> optionB = optionText;
-                case "C" -> optionC = optionText;
-                case "D" -> optionD = optionText;
-            }
-        }
-
-        // Must have at least options A and B
-        if (optionA == null || optionB == null) {
-            return null;
-        }
-
-        // Extract the correct answer
-        Pattern answerPattern = Pattern.compile(
-                "(?mi)^\\s*(?:correct\\s+)?answer\\s*[:\\-=]\\s*(?:\\(?([A-Da-d])\\)?|option\\s+([A-Da-d]))",
-                Pattern.CASE_INSENSITIVE
-        );
-        Matcher answerMatcher = answerPattern.matcher(block);
-        String correctOption = null;
-        if (answerMatcher.find()) {
-            correctOption = (answerMatcher.group(1) != null ? answerMatcher.group(1) : answerMatcher.group(2))
-                    .toUpperCase();
-        }
-
-        if (correctOption == null) {
-            // Try to find answer marked with asterisk (*) or bold
-            Pattern asteriskPattern = Pattern.compile(
-                    "(?m)^\\s*(?:\\(?([A-Da-d])\\)?[.):\\s])\\s*\\*(.+?)\\*?$",
-                    Pattern.CASE_INSENSITIVE
-            );
-            Matcher asteriskMatcher = asteriskPattern.matcher(block);
-            if (asteriskMatcher.find()) {
-                correctOption = asteriskMatcher.group(1).toUpperCase();
-            }
-        }
-
-        if (correctOption == null) {
-            return null; // Can't determine correct answer
-        }
-
-        // Clean up option text — remove trailing "Answer: X" lines from D option
-        if (optionD != null) {
-            optionD = optionD.replaceAll("(?i)\\s*(?:correct\\s+)?answer\\s*[:\\-=].*$", "").trim();
-        }
-
-        Question question = new Question();
-        question.setQuestionText(questionText);
-        question.setOptionA(optionA);
-        question.setOptionB(optionB);
-        question.setOptionC(optionC != null ? optionC : "");
-        question.setOptionD(optionD != null ? optionD : "");
-        question.setCorrectOption(correctOption);
-
-        return question;
-    }
-
-    /**
-     * Fallback parser for files that don't follow the standard numbering.
-     * Looks for blocks separated by blank lines that contain options and answers.
-     */
-    private List<Question> parseQuestionsFallback(String text) {
-        List<Question> questions = new ArrayList<>();
-
-        // Split on double newlines (blank lines between question blocks)
-        String[] blocks = text.split("\\n\\s*\\n");
-
-        for (String block : blocks) {
-            block = block.trim();
-            if (block.isEmpty()) continue;
-
-            // Check if this block has option patterns
-            Pattern optionCheck = Pattern.compile(
-                    "(?m)^\\s*(?:\\(?[A-Da-d]\\)?[.):\\s]|[A-Da-d]\\s*[.):])\\s*",
-                    Pattern.CASE_INSENSITIVE
-            );
-            if (optionCheck.matcher(block).find()) {
-                Question q = parseQuestionBlock(block);
-                if (q != null) {
-                    questions.add(q);
-                }
-            }
-        }
-
-        if (questions.isEmpty()) {
-            throw new IllegalArgumentException(
+    static IllegalArgumentException noQuestionsFound(boolean usedFallback) {
+        if (usedFallback) {
+            return new IllegalArgumentException(
                     "Could not parse any valid questions from the file. " +
                     "Expected format: question text, followed by options A-D, " +
                     "and a line like 'Answer: A'. Questions should be separated by blank lines.");
         }
-
-        return questions;
+        return new IllegalArgumentException(
+                "Could not parse any valid questions from the file. " +
+                "Please ensure questions follow the expected format: " +
+                "numbered question, options A-D, and an answer line (e.g., 'Answer: A').");
     }
 
     /**
@@ -308,8 +208,21 @@ public class QuizUploadService {
     public List<Question> processUploadedFile(MultipartFile file) {
         validateFile(file);
         try {
-            String text = extractText(file);
-            return parseQuestions(text);
+            // Identical uploads (preview then confirm, or the same bank for another module) cost one hash
+            String key = extractionCache.keyOf(file);
+            List<Question> cached = extractionCache.getQuestions(key);
+            if (cached != null) {
+                return cached;
+            }
+
+            String text = extractionCache.getText(key);
+            if (text == null) {
+                text = extractText(file);
+                extractionCache.putText(key, text);
+            }
+            List<Question> questions = parseQuestions(text);
+            extractionCache.putQuestions(key, questions);
+            return questions;
         } catch (IllegalArgumentException e) {
             throw e;
         } catch (Exception e) {
@@ -0,0 +1,118 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.model.RefreshToken;
+import com.miniprojects.learnandassessportal.model.User;
+import com.miniprojects.learnandassessportal.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens. Only the SHA-256 of a token is stored; the value
+ * itself is returned to the client once.
+ *
+ * A refresh token is single-use: rotate() marks it used and returns a new one of the same
+ * family. Presenting a used token again means two parties hold it, so the whole family is
+ * revoked and the owner has to sign in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.jwt.refresh-token-days:14}")
+    private long refreshTokenDays;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public record Rotation(User user, String refreshToken) {}
+
+    /**
+     * A new refresh token starting a new family (a new sign-in).
+     */
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new one; 401 if it is unknown, expired or already used.
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+
+        if (current.isRevoked() || refreshTokenRepository.markUsed(current.getId()) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("Reused refresh token of user {}; revoked {} tokens of its family",
+                    current.getUser().getUserId(), revoked);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token already used");
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token expired");
+        }
+        User user = current.getUser();
+        if (user.getAccountStatus() != User.AccountStatus.ACTIVE) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Account is inactive");
+        }
+        return new Rotation(user, create(user, current.getFamilyId()));
+    }
+
+    /**
+     * Revokes the token and every other token of its family (sign-out).
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-token-cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        // The family prefix lets RateLimitFilter key refreshes by family without a lookup
+        String value = familyId + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(value));
+        token.setUser(user);
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plusDays(refreshTokenDays));
+        refreshTokenRepository.save(token);
+        return value;
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.miniprojects.learnandassessportal.service;
+
+import java.time.Duration;
+
+/**
+ * Second tier of TieredCache, shared between application instances (e.g. Redis).
+ *
+ * Values are the cached objects themselves; a networked store serializes them as it sees fit.
+ * Implementations must not throw on store failures: a failed get is a miss and a failed
+ * put or evict is dropped, the L1 TTL bounds any staleness that follows.
+ */
+public interface SharedCacheStore {
+
+    /**
+     * No second tier: every L1 miss goes to the loader.
+     */
+    SharedCacheStore NONE = new SharedCacheStore() {
+        @Override public Object get(String cache, Object key) { return null; }
+        @Override public void put(String cache, Object key, Object value, Duration ttl) { }
+        @Override public void evict(String cache, Object key) { }
+    };
+
+    /**
+     * The value stored for key in the named cache, or null.
+     */
+    Object get(String cache, Object key);
+
+    void put(String cache, Object key, Object value, Duration ttl);
+
+    void evict(String cache, Object key);
+}
@@ -0,0 +1,170 @@
+package com.miniprojects.learnandassessportal.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache with an in-process L1 (LRU, max-entries and TTL bounded) in front of
+ * a SharedCacheStore L2.
+ *
+ * Concurrent misses on the same key share one load: the first caller runs the loader and
+ * the others wait for its result. invalidate() drops the key from both tiers and detaches
+ * any load in flight, so a load that read the old rows before a write committed never
+ * installs its result. Loader exceptions propagate to every waiter and nothing is cached.
+ */
+public class TieredCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Duration ttl;
+    private final SharedCacheStore l2;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong l2Hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    public TieredCache(String name, int maxEntries, Duration ttl, SharedCacheStore l2) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.ttlNanos = ttl.toNanos();
+        this.l2 = l2;
+    }
+
+    /**
+     * The cached value for key, loading it with loader on a miss in both tiers.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key, Supplier<V> loader) {
+        V cached = getLocal(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            // Someone else is loading this key; waiting costs no load of its own, so it counts as a hit
+            V value = await(inFlight);
+            hits.incrementAndGet();
+            return value;
+        }
+
+        try {
+            V value = (V) l2.get(name, key);
+            if (value != null) {
+                l2Hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                value = loader.get();
+                if (value != null && loading.get(key) == load) {
+                    l2.put(name, key, value, ttl);
+                    // An invalidate() that slipped in before the put may have evicted ahead of it
+                    if (loading.get(key) != load) l2.evict(name, key);
+                }
+            }
+            if (value != null) {
+                install(key, load, value);
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            loadFailures.incrementAndGet();
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    /**
+     * Drops key from both tiers; a load in flight for it finishes but isn't cached.
+     */
+    public void invalidate(K key) {
+        synchronized (this) {
+            loading.remove(key);
+            entries.remove(key);
+        }
+        l2.evict(name, key);
+    }
+
+    /**
+     * Drops every L1 entry (the L2 keeps its entries until they expire).
+     */
+    public synchronized void clear() {
+        entries.clear();
+        loading.clear();
+    }
+
+    public String getName() { return name; }
+    public long getHitCount() { return hits.get(); }
+    public long getL2HitCount() { return l2Hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getLoadFailureCount() { return loadFailures.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+
+    /**
+     * Share of lookups answered without loading from the database (either tier).
+     */
+    public double getHitRatio() {
+        long answered = hits.get() + l2Hits.get();
+        long total = answered + misses.get();
+        return total == 0 ? 0 : (double) answered / total;
+    }
+
+    public synchronized int size() { return entries.size(); }
+
+    private synchronized V getLocal(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAt() - System.nanoTime() <= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    // Only installs if no invalidate() ran while loading
+    private synchronized void install(K key, CompletableFuture<V> load, V value) {
+        if (!loading.remove(key, load)) return;
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a cache load", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new CompletionException(cause);
+        }
+    }
+}
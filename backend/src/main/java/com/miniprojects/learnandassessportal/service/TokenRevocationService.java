@@ -0,0 +1,121 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.model.RevokedToken;
+import com.miniprojects.learnandassessportal.repository.RevokedTokenRepository;
+import com.miniprojects.learnandassessportal.utils.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revoked access tokens, checked on every authenticated request without a database lookup.
+ *
+ * The jtis of revoked, not yet expired tokens are kept in an in-memory Bloom filter. A token
+ * the filter doesn't know is valid; only a filter hit (a revoked token, or a false positive at
+ * about app.jwt.revocation.false-positive-rate) is confirmed against the RevokedTokens table.
+ * The filter is rebuilt from the table every rebuild-interval-ms, which drops expired entries
+ * and picks up revocations made by other instances.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.jwt.revocation.expected-revocations:100000}")
+    private int expectedRevocations;
+
+    @Value("${app.jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    // Revocations made while a rebuild reads the table; null when no rebuild is running
+    private Set<String> revokedDuringRebuild;
+    // Filter hits already confirmed as revoked, so a replayed token costs one lookup per rebuild
+    private volatile Set<String> confirmed = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong filterHits = new AtomicLong();
+    private final AtomicLong revokedHits = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    /**
+     * Whether the access token with this jti was revoked. Tokens without a jti can't be revoked.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) return false;
+        checks.incrementAndGet();
+        if (!filter.mightContain(jti)) return false;
+
+        filterHits.incrementAndGet();
+        if (confirmed.contains(jti) || revokedTokenRepository.existsById(jti)) {
+            confirmed.add(jti);
+            revokedHits.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(Instant.now())) return;
+        RevokedToken revoked = new RevokedToken();
+        revoked.setJti(jti);
+        revoked.setExpiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+        revokedTokenRepository.save(revoked);
+
+        synchronized (lock) {
+            filter.put(jti);
+            if (revokedDuringRebuild != null) revokedDuringRebuild.add(jti);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.rebuild-interval-ms:300000}",
+               initialDelayString = "${app.jwt.revocation.rebuild-interval-ms:300000}")
+    @Transactional
+    public void refresh() {
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        rebuild();
+    }
+
+    private void rebuild() {
+        synchronized (lock) {
+            revokedDuringRebuild = new HashSet<>();
+        }
+        List<String> jtis = revokedTokenRepository.findActiveJtis(LocalDateTime.now());
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, jtis.size() * 2), falsePositiveRate);
+        jtis.forEach(rebuilt::put);
+        synchronized (lock) {
+            revokedDuringRebuild.forEach(rebuilt::put);
+            revokedDuringRebuild = null;
+            filter = rebuilt;
+            confirmed = ConcurrentHashMap.newKeySet();
+        }
+        log.debug("Rebuilt the revoked-token filter with {} entries", jtis.size());
+    }
+
+    public long getCheckCount() { return checks.get(); }
+    public long getFilterHitCount() { return filterHits.get(); }
+    public long getRevokedHitCount() { return revokedHits.get(); }
+}
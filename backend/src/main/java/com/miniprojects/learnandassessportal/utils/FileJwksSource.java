@@ -0,0 +1,31 @@
+package com.miniprojects.learnandassessportal.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Reads a JWKS document from a local file (app.google.jwks-file), e.g. for offline runs and
+ * tests that sign their own ID tokens. The file is re-read every refreshInterval.
+ */
+public class FileJwksSource implements JwksSource {
+
+    private final Path file;
+    private final Duration refreshInterval;
+
+    public FileJwksSource(Path file, Duration refreshInterval) {
+        this.file = file;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @Override
+    public Jwks fetch() throws IOException {
+        return new Jwks(Files.readString(file), refreshInterval);
+    }
+
+    @Override
+    public String describe() {
+        return file.toString();
+    }
+}
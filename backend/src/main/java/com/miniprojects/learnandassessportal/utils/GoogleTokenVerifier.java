@@ -0,0 +1,183 @@
+package com.miniprojects.learnandassessportal.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Long-lived verifier of Google ID tokens, so sign-in is a local RSA signature check.
+ *
+ * Signing keys come from a JwksSource and are refreshed in the background shortly before the
+ * max-age the source reported; a failed refresh keeps the current keys and retries after
+ * minRefresh. When keyStoreFile is set, the last good key set is written there and loaded on
+ * startup, so a restart verifies tokens before the first fetch completes. A token signed with
+ * an unknown key triggers one immediate refresh (at most every minRefresh), to follow rotations.
+ */
+public class GoogleTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleTokenVerifier.class);
+
+    private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+    private static final long CLOCK_SKEW_SECONDS = 300;
+    // Refresh this long before the source's max-age runs out
+    private static final Duration REFRESH_AHEAD = Duration.ofMinutes(5);
+
+    private final JwksSource source;
+    private final Path keyStoreFile;
+    private final Collection<String> audience;
+    private final TaskScheduler scheduler;
+    private final Duration minRefresh;
+
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile Instant lastRefreshAttempt = Instant.EPOCH;
+
+    public GoogleTokenVerifier(JwksSource source, Path keyStoreFile, Collection<String> audience,
+                               TaskScheduler scheduler, Duration minRefresh) {
+        this.source = source;
+        this.keyStoreFile = keyStoreFile;
+        this.audience = List.copyOf(audience);
+        this.scheduler = scheduler;
+        this.minRefresh = minRefresh;
+    }
+
+    /**
+     * Loads the stored key set, if any, and starts refreshing from the source in the background.
+     */
+    public void start() {
+        if (keyStoreFile != null && Files.isReadable(keyStoreFile)) {
+            try {
+                keys = parseJwks(Files.readString(keyStoreFile));
+                log.info("Loaded {} Google signing keys from {}", keys.size(), keyStoreFile);
+            } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                log.warn("Ignoring unreadable Google key store {}: {}", keyStoreFile, e.getMessage());
+            }
+        }
+        if (scheduler != null) {
+            scheduler.schedule(this::refreshAndReschedule, Instant.now());
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * The payload of a valid token for our client ID, or null if the signature, issuer,
+     * audience or expiry doesn't check out.
+     */
+    public GoogleIdToken.Payload verify(String idToken) {
+        GoogleIdToken token;
+        try {
+            token = GoogleIdToken.parse(jsonFactory, idToken);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+
+        String keyId = token.getHeader().getKeyId();
+        PublicKey key = keyId != null ? keys.get(keyId) : null;
+        if (key == null && keyId != null && refreshForUnknownKey()) {
+            key = keys.get(keyId);
+        }
+        if (key == null) {
+            return null;
+        }
+
+        try {
+            if (!token.verifySignature(key)) return null;
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+        if (!token.verifyIssuer(ISSUERS)
+                || !token.verifyAudience(audience)
+                || !token.verifyTime(System.currentTimeMillis(), CLOCK_SKEW_SECONDS)) {
+            return null;
+        }
+        return token.getPayload();
+    }
+
+    public int getKeyCount() {
+        return keys.size();
+    }
+
+    /**
+     * Fetches the key set now; returns its max-age, or null if the fetch failed.
+     */
+    public synchronized Duration refresh() {
+        lastRefreshAttempt = Instant.now();
+        try {
+            JwksSource.Jwks jwks = source.fetch();
+            keys = parseJwks(jwks.json());
+            store(jwks.json());
+            return jwks.maxAge();
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.warn("Refreshing Google signing keys from {} failed, keeping {} current keys: {}",
+                    source.describe(), keys.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void refreshAndReschedule() {
+        Duration maxAge = refresh();
+        Duration delay = maxAge != null ? maxAge.minus(REFRESH_AHEAD) : minRefresh;
+        if (delay.compareTo(minRefresh) < 0) delay = minRefresh;
+        scheduler.schedule(this::refreshAndReschedule, Instant.now().plus(delay));
+    }
+
+    private synchronized boolean refreshForUnknownKey() {
+        if (Duration.between(lastRefreshAttempt, Instant.now()).compareTo(minRefresh) < 0) {
+            return false;
+        }
+        return refresh() != null;
+    }
+
+    private void store(String json) {
+        if (keyStoreFile == null) return;
+        try {
+            Path dir = keyStoreFile.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "google-jwks", ".tmp");
+            Files.writeString(tmp, json);
+            Files.move(tmp, keyStoreFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write Google key store {}: {}", keyStoreFile, e.getMessage());
+        }
+    }
+
+    private Map<String, PublicKey> parseJwks(String json) throws IOException, GeneralSecurityException {
+        KeyFactory rsa = KeyFactory.getInstance("RSA");
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (JsonNode key : objectMapper.readTree(json).path("keys")) {
+            if (!"RSA".equals(key.path("kty").asText("RSA"))) continue;
+            BigInteger n = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("n").asText()));
+            BigInteger e = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("e").asText()));
+            parsed.put(key.path("kid").asText(), rsa.generatePublic(new RSAPublicKeySpec(n, e)));
+        }
+        if (parsed.isEmpty()) {
+            throw new IOException("no RSA keys in JWKS");
+        }
+        return Map.copyOf(parsed);
+    }
+}
@@ -0,0 +1,60 @@
+package com.miniprojects.learnandassessportal.utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fetches a JWKS document over HTTPS; its lifetime comes from the Cache-Control max-age
+ * (Google's certs endpoint sends one), or defaultMaxAge without it.
+ */
+public class HttpJwksSource implements JwksSource {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age\\s*=\\s*(\\d+)");
+
+    private final URI uri;
+    private final Duration defaultMaxAge;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public HttpJwksSource(String uri, Duration defaultMaxAge) {
+        this.uri = URI.create(uri);
+        this.defaultMaxAge = defaultMaxAge;
+    }
+
+    @Override
+    public Jwks fetch() throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(15))
+                .GET()
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + uri, e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + uri + " returned " + response.statusCode());
+        }
+
+        Duration maxAge = response.headers().firstValue("Cache-Control")
+                .map(MAX_AGE::matcher)
+                .filter(Matcher::find)
+                .map(m -> Duration.ofSeconds(Long.parseLong(m.group(1))))
+                .orElse(defaultMaxAge);
+        return new Jwks(response.body(), maxAge);
+    }
+
+    @Override
+    public String describe() {
+        return uri.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.miniprojects.learnandassessportal.utils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Where GoogleTokenVerifier gets its signing keys from: a JWKS document ({"keys": [...]}
+ * with RSA "kid", "n" and "e" members), plus how long it may be used before refreshing.
+ */
+public interface JwksSource {
+
+    record Jwks(String json, Duration maxAge) {}
+
+    Jwks fetch() throws IOException;
+
+    /**
+     * Human-readable origin, for logs.
+     */
+    String describe();
+}
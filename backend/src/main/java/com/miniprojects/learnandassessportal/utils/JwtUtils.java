@@ -1,23 +1,41 @@
 package com.miniprojects.learnandassessportal.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 import com.miniprojects.learnandassessportal.model.User;
 
 @Component
 public class JwtUtils {
-    // Generate a secure key for HS512 (automatically 512+ bits)
-    private final SecretKey jwtSecretKey = Keys.hmacShaKeyFor(
-            "MySuperSecretKeyForJWTTokenGenerationThatIsAtLeast64BytesLongForHS512Algorithm!!".getBytes()
-    );
-    private int jwtExpirationMs = 86400000; // 24 hours
+    private final SecretKey jwtSecretKey;
+    // Access tokens are short-lived; clients renew them with a refresh token
+    private final long jwtExpirationMs;
+
+    // Immutable and thread-safe: built once instead of per parse
+    private final JwtParser jwtParser;
+
+    public JwtUtils(@Value("${app.jwt.secret:}") String secret,
+                    @Value("${app.jwt.access-token-minutes:15}") long accessTokenMinutes) {
+        // HS512 needs a key of at least 512 bits; there is deliberately no built-in fallback
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < 64) {
+            throw new IllegalStateException("app.jwt.secret must be set (e.g. from JWT_SECRET) to at least 64 bytes");
+        }
+        this.jwtSecretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtExpirationMs = accessTokenMinutes * 60_000;
+        this.jwtParser = Jwts.parser().verifyWith(jwtSecretKey).build();
+    }
 
     public String generateToken(User user) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getEmail())
                 .claim("role", user.getRole().toString())
                 .issuedAt(new Date())
@@ -26,33 +44,15 @@ public class JwtUtils {
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(jwtSecretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+    public long getAccessTokenSeconds() {
+        return jwtExpirationMs / 1000;
     }
 
-    public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(jwtSecretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return (String) claims.get("role");
-    }
-
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(jwtSecretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+    /**
+     * Verifies the signature and expiry and returns the claims; throws JwtException otherwise.
+     * Use TokenVerifier on the request path, it caches the result per token.
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
-}
\ No newline at end of file
+}
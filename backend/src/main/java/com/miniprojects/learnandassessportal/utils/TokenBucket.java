@@ -0,0 +1,51 @@
+package com.miniprojects.learnandassessportal.utils;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free token bucket: holds up to capacity tokens and refills refillPerMinute of them
+ * per minute. Each call takes one token with a compare-and-set, retried on contention.
+ * Times are System.nanoTime() values, passed in so callers (and tests) control the clock.
+ */
+public class TokenBucket {
+
+    private record State(double tokens, long updatedAt) {}
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(int capacity, int refillPerMinute, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Takes a token; returns 0 if one was available, otherwise the nanoseconds until one will be.
+     */
+    public long tryConsume(long now) {
+        while (true) {
+            State current = state.get();
+            double tokens = available(current, now);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.updatedAt())))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has refilled completely, i.e. dropping it changes nothing.
+     */
+    public boolean isFull(long now) {
+        return available(state.get(), now) >= capacity;
+    }
+
+    private double available(State s, long now) {
+        long elapsed = Math.max(0, now - s.updatedAt());
+        return Math.min(capacity, s.tokens() + elapsed * tokensPerNano);
+    }
+}
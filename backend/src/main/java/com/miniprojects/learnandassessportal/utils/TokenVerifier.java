@@ -0,0 +1,117 @@
+package com.miniprojects.learnandassessportal.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies bearer tokens for JwtAuthenticationFilter, parsing each token at most once.
+ *
+ * A verified token is remembered, keyed by the SHA-256 of the token string, until its own
+ * expiry, so repeat requests with the same token skip the HS512 check and the claims parse.
+ * The cache is LRU-bounded by app.jwt.verified-cache.max-entries; invalid tokens are never
+ * cached, so garbage tokens can't push valid ones out.
+ */
+@Component
+public class TokenVerifier {
+
+    /**
+     * The claims the application uses, taken from a token whose signature and expiry checked out.
+     * jti is null for tokens issued before access tokens carried one.
+     */
+    public record VerifiedToken(String email, String role, String jti, Instant expiresAt) {
+        boolean isExpired(Instant now) {
+            return !expiresAt.isAfter(now);
+        }
+    }
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Value("${app.jwt.verified-cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, VerifiedToken> verified = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * The verified claims of token, or null if it is malformed, forged or expired.
+     */
+    public VerifiedToken verify(String token) {
+        String key = hash(token);
+        Instant now = Instant.now();
+
+        synchronized (this) {
+            VerifiedToken cached = verified.get(key);
+            if (cached != null) {
+                if (!cached.isExpired(now)) {
+                    hits.incrementAndGet();
+                    return cached;
+                }
+                verified.remove(key);
+            }
+        }
+
+        misses.incrementAndGet();
+        VerifiedToken parsed;
+        try {
+            Claims claims = jwtUtils.parseClaims(token);
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            parsed = new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+                    claims.getId(), claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            rejected.incrementAndGet();
+            return null;
+        }
+
+        store(key, parsed, now);
+        return parsed;
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getRejectedCount() { return rejected.get(); }
+
+    public synchronized int size() { return verified.size(); }
+
+    private synchronized void store(String key, VerifiedToken token, Instant now) {
+        verified.put(key, token);
+        if (verified.size() <= maxEntries) return;
+
+        // Expired entries go first, then the least recently used ones
+        verified.values().removeIf(t -> t.isExpired(now));
+        Iterator<Map.Entry<String, VerifiedToken>> it = verified.entrySet().iterator();
+        while (verified.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.miniprojects.learnandassessportal.benchmark;
+
+import com.miniprojects.learnandassessportal.model.Module;
+import com.miniprojects.learnandassessportal.model.Question;
+import com.miniprojects.learnandassessportal.model.Quiz;
+import com.miniprojects.learnandassessportal.repository.QuestionRepository;
+import com.miniprojects.learnandassessportal.repository.QuizRepository;
+import com.miniprojects.learnandassessportal.service.QuestionPoolCache;
+import com.miniprojects.learnandassessportal.service.QuizAnalyticsService;
+import com.miniprojects.learnandassessportal.service.QuizAttemptSessionStore;
+import com.miniprojects.learnandassessportal.service.QuizService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Synthetic question banks and a QuizService wired to in-memory repository stubs.
+ */
+final class QuestionBanks {
+
+    static final int MODULE_ID = 1;
+    static final long QUIZ_ID = 1L;
+
+    private QuestionBanks() {}
+
+    /**
+     * Quiz-bank text in the numbered upload format, with a mix of option styles.
+     */
+    static String bankText(int questions, long seed) {
+        Random random = new Random(seed);
+        String[] optionStyles = {"%s) %s", "%s. %s", "(%s) %s"};
+        StringBuilder sb = new StringBuilder(questions * 200);
+        for (int i = 1; i <= questions; i++) {
+            sb.append(i).append(". Which statement about concept ").append(i)
+                    .append(" of the module is correct?\n");
+            String style = optionStyles[random.nextInt(optionStyles.length)];
+            for (char letter = 'A'; letter <= 'D'; letter++) {
+                sb.append(String.format(style, letter, "Option " + letter + " describing item " + i)).append('\n');
+            }
+            sb.append("Answer: ").append((char) ('A' + random.nextInt(4))).append("\n\n");
+        }
+        return sb.toString();
+    }
+
+    static List<QuestionRepository.PoolRow> poolRows(int questions, long seed) {
+        Random random = new Random(seed);
+        List<QuestionRepository.PoolRow> rows = new ArrayList<>(questions);
+        for (int i = 1; i <= questions; i++) {
+            rows.add(new Row((long) i, QUIZ_ID, "Question " + i + " of the synthetic pool?",
+                    "Option A " + i, "Option B " + i, "Option C " + i, "Option D " + i,
+                    String.valueOf((char) ('A' + random.nextInt(4)))));
+        }
+        return rows;
+    }
+
+    static Quiz quiz(int questions, long seed) {
+        Module module = new Module();
+        module.setModuleId(MODULE_ID);
+        Quiz quiz = new Quiz();
+        quiz.setQuizId(QUIZ_ID);
+        quiz.setTitle("Synthetic quiz");
+        quiz.setModule(module);
+        List<Question> list = new ArrayList<>(questions);
+        for (QuestionRepository.PoolRow row : poolRows(questions, seed)) {
+            Question q = new Question();
+            q.setQuestionId(row.getQuestionId());
+            q.setQuestionText(row.getQuestionText());
+            q.setOptionA(row.getOptionA());
+            q.setOptionB(row.getOptionB());
+            q.setOptionC(row.getOptionC());
+            q.setOptionD(row.getOptionD());
+            q.setCorrectOption(row.getCorrectOption());
+            list.add(q);
+        }
+        quiz.setQuestions(list);
+        return quiz;
+    }
+
+    /**
+     * QuizService backed by a pool of the given size; no Spring context, no database.
+     */
+    static QuizService quizService(int poolSize, long seed) {
+        List<QuestionRepository.PoolRow> rows = poolRows(poolSize, seed);
+        Quiz quiz = quiz(poolSize, seed);
+
+        QuestionRepository questionRepository = stub(QuestionRepository.class, Map.of(
+                "findPoolRowsByModuleId", args -> rows));
+        QuizRepository quizRepository = stub(QuizRepository.class, Map.of(
+                "findById", args -> Optional.of(quiz)));
+
+        QuestionPoolCache poolCache = new QuestionPoolCache();
+        ReflectionTestUtils.setField(poolCache, "questionRepository", questionRepository);
+
+        QuizAnalyticsService analytics = new QuizAnalyticsService();
+        ReflectionTestUtils.setField(analytics, "questionPoolCache", poolCache);
+
+        QuizService service = new QuizService();
+        ReflectionTestUtils.setField(service, "quizRepository", quizRepository);
+        ReflectionTestUtils.setField(service, "questionPoolCache", poolCache);
+        ReflectionTestUtils.setField(service, "attemptSessionStore", new QuizAttemptSessionStore(120, 50_000));
+        ReflectionTestUtils.setField(service, "quizAnalyticsService", analytics);
+        return service;
+    }
+
+    /**
+     * Proxy implementing only the named repository methods; anything else throws.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString": return type.getSimpleName() + " stub";
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+            }
+            Function<Object[], Object> impl = methods.get(method.getName());
+            if (impl == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+            }
+            return impl.apply(args);
+        });
+    }
+
+    private record Row(Long getQuestionId, Long getQuizId, String getQuestionText,
+                       String getOptionA, String getOptionB, String getOptionC, String getOptionD,
+                       String getCorrectOption) implements QuestionRepository.PoolRow {}
+}
@@ -0,0 +1,78 @@
+package com.miniprojects.learnandassessportal.benchmark;
+
+import com.miniprojects.learnandassessportal.dto.QuizResultResponse;
+import com.miniprojects.learnandassessportal.dto.QuizSubmissionRequest;
+import com.miniprojects.learnandassessportal.dto.RandomQuizResponse;
+import com.miniprojects.learnandassessportal.dto.StudentQuestionView;
+import com.miniprojects.learnandassessportal.service.QuizService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The student hot paths: drawing a randomized quiz from a module pool and scoring submissions.
+ * Repositories are in-memory stubs, so only the service code is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuizAttemptBenchmark {
+
+    private static final String STUDENT = "student@benchmark.local";
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int poolSize;
+
+    @Param({"10"})
+    public int numQuestions;
+
+    private QuizService quizService;
+    private QuizSubmissionRequest fullQuizSubmission;
+
+    @Setup
+    public void setUp() {
+        quizService = QuestionBanks.quizService(poolSize, 42L);
+
+        // Warm the pool cache so the benchmarks measure cached draws, as in production
+        quizService.getRandomizedQuizForModule(QuestionBanks.MODULE_ID, numQuestions, STUDENT);
+
+        Map<Long, String> answers = new HashMap<>();
+        for (long id = 1; id <= poolSize; id++) {
+            answers.put(id, id % 2 == 0 ? "A" : "B");
+        }
+        fullQuizSubmission = new QuizSubmissionRequest(answers);
+    }
+
+    @Benchmark
+    public RandomQuizResponse getRandomizedQuizForModule() {
+        return quizService.getRandomizedQuizForModule(QuestionBanks.MODULE_ID, numQuestions, STUDENT);
+    }
+
+    /**
+     * Draw a quiz, answer every question with "A" and submit it with its attempt token.
+     */
+    @Benchmark
+    public QuizResultResponse drawAndEvaluateRandomizedAttempt() {
+        RandomQuizResponse quiz = quizService.getRandomizedQuizForModule(QuestionBanks.MODULE_ID, numQuestions, STUDENT);
+        Map<Long, String> answers = new HashMap<>();
+        for (StudentQuestionView q : quiz.getQuestions()) {
+            answers.put(q.questionId(), "A");
+        }
+        QuizSubmissionRequest submission = new QuizSubmissionRequest(answers);
+        submission.setAttemptToken(quiz.getAttemptToken());
+        return quizService.evaluateQuiz(quiz.getQuizId(), submission, STUDENT);
+    }
+
+    /**
+     * Scoring a submission against a persisted quiz holding the whole pool.
+     */
+    @Benchmark
+    public QuizResultResponse evaluatePersistedQuiz() {
+        return quizService.evaluateQuiz(QuestionBanks.QUIZ_ID, fullQuizSubmission, STUDENT);
+    }
+}
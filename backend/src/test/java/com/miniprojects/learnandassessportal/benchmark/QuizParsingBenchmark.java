@@ -0,0 +1,45 @@
+package com.miniprojects.learnandassessportal.benchmark;
+
+import com.miniprojects.learnandassessportal.model.Question;
+import com.miniprojects.learnandassessportal.service.LegacyQuizParser;
+import com.miniprojects.learnandassessportal.service.QuizUploadService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing an uploaded quiz bank: the current parser against the previous regex parser.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuizParsingBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int bankSize;
+
+    private String bankText;
+    private QuizUploadService uploadService;
+    private LegacyQuizParser legacyParser;
+
+    @Setup
+    public void setUp() {
+        bankText = QuestionBanks.bankText(bankSize, 42L);
+        uploadService = new QuizUploadService();
+        legacyParser = new LegacyQuizParser();
+    }
+
+    @Benchmark
+    public List<Question> parseQuestions() {
+        return uploadService.parseQuestions(bankText);
+    }
+
+    @Benchmark
+    public List<Question> parseQuestionsLegacy() {
+        return legacyParser.parseQuestions(bankText);
+    }
+}
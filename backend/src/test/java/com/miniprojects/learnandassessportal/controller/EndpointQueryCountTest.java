@@ -0,0 +1,535 @@
+package com.miniprojects.learnandassessportal.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.miniprojects.learnandassessportal.config.SqlStatementCounter;
+import com.miniprojects.learnandassessportal.dto.ModuleRequest;
+import com.miniprojects.learnandassessportal.model.Course;
+import com.miniprojects.learnandassessportal.model.Lesson;
+import com.miniprojects.learnandassessportal.model.Module;
+import com.miniprojects.learnandassessportal.model.Question;
+import com.miniprojects.learnandassessportal.model.Quiz;
+import com.miniprojects.learnandassessportal.model.User;
+import com.miniprojects.learnandassessportal.repository.CourseRepository;
+import com.miniprojects.learnandassessportal.repository.LessonRepository;
+import com.miniprojects.learnandassessportal.repository.ModuleRepository;
+import com.miniprojects.learnandassessportal.repository.UserRepository;
+import com.miniprojects.learnandassessportal.service.ContentCache;
+import com.miniprojects.learnandassessportal.service.ModuleService;
+import com.miniprojects.learnandassessportal.service.QuestionPoolCache;
+import com.miniprojects.learnandassessportal.service.QuizAttemptRecorder;
+import com.miniprojects.learnandassessportal.service.QuizService;
+import com.miniprojects.learnandassessportal.utils.JwtUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each read endpoint issues.
+ *
+ * The seed data has several rows at every level (instructors, courses, modules, lessons,
+ * quizzes, questions), so a per-row lazy load shows up as a changed count. The SQL budget
+ * runs in fail mode, so a repeated SELECT also fails the request itself.
+ * Counts are for a cold ContentCache; the cached reads are also checked warm.
+ * When a change legitimately alters a count, update the expectation here.
+ */
+@SpringBootTest(properties = {"app.sql-budget.mode=fail", "app.sql-budget.repeat-threshold=3",
+        "app.metrics.password=" + EndpointQueryCountTest.METRICS_PASSWORD})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryCountTest {
+
+    private static final int COURSES = 3;
+    private static final int MODULES_PER_COURSE = 3;
+    private static final int LESSONS_PER_MODULE = 3;
+    private static final int QUIZZES_PER_MODULE = 2;
+    private static final int QUESTIONS_PER_QUIZ = 3;
+    private static final String PASSWORD = "query-count-password";
+    static final String METRICS_PASSWORD = "query-count-metrics";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private LessonRepository lessonRepository;
+    @Autowired private QuizService quizService;
+    @Autowired private ModuleService moduleService;
+    @Autowired private QuestionPoolCache questionPoolCache;
+    @Autowired private QuizAttemptRecorder quizAttemptRecorder;
+    @Autowired private ContentCache contentCache;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private JwtUtils jwtUtils;
+
+    private Integer courseId;
+    private Integer moduleId;
+    private Long lessonId;
+    private Long quizId;
+    private String instructorToken;
+    private String studentToken;
+
+    @BeforeAll
+    void seed() {
+        List<User> instructors = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            instructors.add(userRepository.save(user("instructor" + i + "@example.com", User.Role.INSTRUCTOR)));
+        }
+        User student = userRepository.save(user("student@example.com", User.Role.STUDENT));
+        instructorToken = jwtUtils.generateToken(instructors.get(0));
+        studentToken = jwtUtils.generateToken(student);
+
+        for (int c = 0; c < COURSES; c++) {
+            Course course = new Course();
+            course.setTitle("Course " + c);
+            course.setCategory(c == 0 ? "Data" : "Web");
+            course.setInstructor(instructors.get(c % instructors.size()));
+            course = courseRepository.save(course);
+            if (courseId == null) courseId = course.getCourseId();
+
+            for (int m = 0; m < MODULES_PER_COURSE; m++) {
+                Module module = new Module();
+                module.setTitle("Module " + m);
+                module.setModuleOrder(m + 1);
+                module.setCourse(course);
+                module = moduleRepository.save(module);
+                if (moduleId == null) moduleId = module.getModuleId();
+
+                for (int l = 0; l < LESSONS_PER_MODULE; l++) {
+                    Lesson lesson = new Lesson();
+                    lesson.setTitle("Lesson " + l);
+                    lesson.setContentType(Lesson.ContentType.TEXT);
+                    lesson.setTextContent("Text " + l);
+                    lesson.setLessonOrder(l + 1);
+                    lesson.setModule(module);
+                    lesson = lessonRepository.save(lesson);
+                    if (lessonId == null) lessonId = lesson.getLessonId();
+                }
+                for (int q = 0; q < QUIZZES_PER_MODULE; q++) {
+                    Quiz saved = quizService.saveQuiz(module.getModuleId(), quiz("Quiz " + q));
+                    if (quizId == null) quizId = saved.getQuizId();
+                }
+            }
+        }
+    }
+
+    @BeforeEach
+    void coldCaches() {
+        contentCache.clear();
+    }
+
+    @Test
+    void courseCatalog() throws Exception {
+        assertStatements(1, get("/api/courses"));
+    }
+
+    @Test
+    void pagedCatalog() throws Exception {
+        // Newest first, one statement per page however deep the cursor
+        String first = assertStatements(1, get("/api/courses/catalog?limit=2")).getResponse().getContentAsString();
+        assertEquals(List.of("Course 2", "Course 1"), JsonPath.read(first, "$.items[*].title"));
+        String cursor = JsonPath.read(first, "$.nextCursor");
+
+        String second = assertStatements(1, get("/api/courses/catalog?limit=2&cursor=" + cursor))
+                .getResponse().getContentAsString();
+        assertEquals(List.of("Course 0"), JsonPath.read(second, "$.items[*].title"));
+        assertNull(JsonPath.read(second, "$.nextCursor"));
+
+        String web = assertStatements(1, get("/api/courses/catalog?category=Web")).getResponse().getContentAsString();
+        assertEquals(List.of("Course 2", "Course 1"), JsonPath.read(web, "$.items[*].title"));
+        assertEquals("instructor0@example.com", JsonPath.read(web, "$.items[0].instructorName"));
+
+        mockMvc.perform(get("/api/courses/catalog?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void singleCourse() throws Exception {
+        assertStatements(1, get("/api/courses/" + courseId));
+        assertStatements(0, get("/api/courses/" + courseId));
+    }
+
+    @Test
+    void instructorCourses() throws Exception {
+        assertStatements(1, get("/api/courses/mine").header("Authorization", "Bearer " + instructorToken));
+    }
+
+    @Test
+    void courseOutline() throws Exception {
+        // Course header, module rows, lesson rows
+        String outline = assertStatements(3, get("/api/courses/" + courseId + "/outline"))
+                .getResponse().getContentAsString();
+        assertEquals(List.of(1, 2, 3), JsonPath.read(outline, "$.modules[*].moduleOrder"));
+        assertEquals(List.of(1, 2, 3), JsonPath.read(outline, "$.modules[0].lessons[*].lessonOrder"));
+        assertEquals(List.of(), JsonPath.read(outline, "$.modules[*].lessons[*].textContent"));
+
+        String withText = assertStatements(3, get("/api/courses/" + courseId + "/outline?includeText=true"))
+                .getResponse().getContentAsString();
+        assertEquals("Text 0", JsonPath.read(withText, "$.modules[0].lessons[0].textContent"));
+    }
+
+    @Test
+    void conditionalGetSkipsTheDatabase() throws Exception {
+        String url = "/api/courses/" + courseId + "/outline";
+        String eTag = assertStatements(3, get(url)).getResponse().getHeader("ETag");
+
+        MvcResult notModified = mockMvc.perform(get(url).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified()).andReturn();
+        assertEquals(0, sqlSummary(notModified).statements());
+
+        // A module write moves the course's version on
+        ModuleRequest rename = new ModuleRequest();
+        rename.setTitle("Module 0");
+        moduleService.updateModule(moduleId, rename);
+        String changed = mockMvc.perform(get(url).header("If-None-Match", eTag))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(eTag, changed);
+    }
+
+    @Test
+    void modulesOfCourse() throws Exception {
+        assertStatements(1, get("/api/courses/" + courseId + "/modules"));
+        assertStatements(0, get("/api/courses/" + courseId + "/modules"));
+    }
+
+    @Test
+    void singleModule() throws Exception {
+        assertStatements(2, get("/api/modules/" + moduleId));
+    }
+
+    @Test
+    void lessonsOfModule() throws Exception {
+        assertStatements(1, get("/api/modules/" + moduleId + "/lessons"));
+        assertStatements(0, get("/api/modules/" + moduleId + "/lessons"));
+    }
+
+    @Test
+    void singleLesson() throws Exception {
+        assertStatements(1, get("/api/modules/" + moduleId + "/lessons/" + lessonId));
+    }
+
+    @Test
+    void quizzesOfModule() throws Exception {
+        assertStatements(1, get("/api/modules/" + moduleId + "/quizzes"));
+    }
+
+    @Test
+    void singleQuiz() throws Exception {
+        assertStatements(2, get("/api/modules/" + moduleId + "/quizzes/" + quizId));
+    }
+
+    @Test
+    void contentIsOnlyServedUnderItsOwnModule() throws Exception {
+        String quiz = "/api/modules/" + moduleId + "/quizzes/" + quizId;
+        String lesson = "/api/modules/" + moduleId + "/lessons/" + lessonId;
+        String quizETag = mockMvc.perform(get(quiz)).andReturn().getResponse().getHeader("ETag");
+        String lessonETag = mockMvc.perform(get(lesson)).andReturn().getResponse().getHeader("ETag");
+
+        int otherModule = moduleId + 1;
+        mockMvc.perform(get("/api/modules/" + otherModule + "/quizzes/" + quizId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/modules/" + otherModule + "/lessons/" + lessonId)).andExpect(status().isNotFound());
+        // Not even a 304 for an ETag that happens to match the other module's version
+        String otherETag = quizETag.replace("module-" + moduleId + "-", "module-" + otherModule + "-");
+        mockMvc.perform(get("/api/modules/" + otherModule + "/quizzes/" + quizId).header("If-None-Match", otherETag))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/modules/" + otherModule + "/lessons/" + lessonId).header("If-None-Match", otherETag))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get(quiz).header("If-None-Match", quizETag)).andExpect(status().isNotModified());
+        mockMvc.perform(get(lesson).header("If-None-Match", lessonETag)).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void randomizedQuiz() throws Exception {
+        questionPoolCache.invalidate(moduleId);
+        // Cold: one query loads the module's pool; warm: served from memory
+        assertStatements(1, get("/api/modules/" + moduleId + "/quizzes/random?numQuestions=4")
+                .header("Authorization", "Bearer " + studentToken));
+        assertStatements(0, get("/api/modules/" + moduleId + "/quizzes/random?numQuestions=4")
+                .header("Authorization", "Bearer " + studentToken));
+    }
+
+    @Test
+    void randomizedQuizRequiresSignIn() throws Exception {
+        mockMvc.perform(get("/api/modules/" + moduleId + "/quizzes/random?numQuestions=4"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void analyticsAreForInstructorsOnly() throws Exception {
+        mockMvc.perform(get("/api/modules/" + moduleId + "/quizzes/analytics"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/modules/" + moduleId + "/quizzes/analytics")
+                        .header("Authorization", "Bearer " + studentToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/modules/" + moduleId + "/quizzes/1/analytics")
+                        .header("Authorization", "Bearer " + studentToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/modules/" + moduleId + "/quizzes/analytics")
+                        .header("Authorization", "Bearer " + instructorToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/modules/" + moduleId + "/quizzes/" + quizId + "/analytics")
+                        .header("Authorization", "Bearer " + instructorToken))
+                .andExpect(status().isOk());
+        // A quiz is only reported under its own module
+        mockMvc.perform(get("/api/modules/" + (moduleId + 1) + "/quizzes/" + quizId + "/analytics")
+                        .header("Authorization", "Bearer " + instructorToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void randomizedAttemptsCountOnlyTowardsTheModule() throws Exception {
+        String quizPath = "/api/modules/" + moduleId + "/quizzes";
+        MvcResult attempt = mockMvc.perform(get(quizPath + "/random?numQuestions=4")
+                        .header("Authorization", "Bearer " + studentToken))
+                .andExpect(status().isOk()).andReturn();
+        String body = attempt.getResponse().getContentAsString();
+        long quizId = ((Number) JsonPath.read(body, "$.quizId")).longValue();
+        String attemptToken = JsonPath.read(body, "$.attemptToken");
+        assertFalse(body.contains("correctOption"), "the answer key must stay on the server");
+
+        long moduleAttempts = analyticsAttempts(quizPath + "/analytics");
+        long quizAttempts = analyticsAttempts(quizPath + "/" + quizId + "/analytics");
+        long recorded = quizAttemptRecorder.getEnqueuedCount();
+        mockMvc.perform(post(quizPath + "/" + quizId + "/submit")
+                        .header("Authorization", "Bearer " + studentToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"answers\":{},\"attemptToken\":\"" + attemptToken + "\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(moduleAttempts + 1, analyticsAttempts(quizPath + "/analytics"));
+        assertEquals(quizAttempts, analyticsAttempts(quizPath + "/" + quizId + "/analytics"));
+        assertEquals(recorded, quizAttemptRecorder.getEnqueuedCount(), "not stored as an attempt at quizId");
+    }
+
+    @Test
+    void randomizedAttemptsBelongToTheirStudent() throws Exception {
+        String quizPath = "/api/modules/" + moduleId + "/quizzes";
+        String first = mockMvc.perform(get(quizPath + "/random?numQuestions=4")
+                        .header("Authorization", "Bearer " + studentToken))
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get(quizPath + "/random?numQuestions=4")
+                        .header("Authorization", "Bearer " + studentToken))
+                .andReturn().getResponse().getContentAsString();
+
+        // A new draw replaces the student's open attempt in the module
+        mockMvc.perform(submitAttempt(quizPath, first, studentToken)).andExpect(status().isGone());
+        mockMvc.perform(submitAttempt(quizPath, second, instructorToken)).andExpect(status().isForbidden());
+        mockMvc.perform(submitAttempt(quizPath, second, studentToken)).andExpect(status().isOk());
+    }
+
+    @Test
+    void deletingQuizzesWithAttempts() throws Exception {
+        Module module = new Module();
+        module.setTitle("Module with attempts");
+        module.setModuleOrder(99);
+        // Not in courseId, whose outline other tests check
+        module.setCourse(courseRepository.findAll().stream()
+                .filter(c -> !c.getCourseId().equals(courseId)).findFirst().orElseThrow());
+        Integer doomedModuleId = moduleRepository.save(module).getModuleId();
+        List<Long> quizIds = List.of(
+                quizService.saveQuiz(doomedModuleId, quiz("Attempted 1")).getQuizId(),
+                quizService.saveQuiz(doomedModuleId, quiz("Attempted 2")).getQuizId());
+
+        String quizPath = "/api/modules/" + doomedModuleId + "/quizzes/";
+        long written = quizAttemptRecorder.getWrittenCount();
+        for (Long id : quizIds) {
+            mockMvc.perform(post(quizPath + id + "/submit")
+                            .header("Authorization", "Bearer " + studentToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"answers\":{}}"))
+                    .andExpect(status().isOk());
+        }
+        for (int i = 0; i < 100 && quizAttemptRecorder.getWrittenCount() < written + 2; i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(quizAttemptRecorder.getWrittenCount() >= written + 2, "attempts were not written");
+
+        // Attempts go with their quiz, and with every quiz of a deleted module
+        mockMvc.perform(delete(quizPath + quizIds.get(0)).header("Authorization", "Bearer " + instructorToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/modules/" + doomedModuleId).header("Authorization", "Bearer " + instructorToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void importJobsAreVisibleToTheirSubmitterOnly() throws Exception {
+        Integer otherCourse = courseRepository.findAll().stream()
+                .map(Course::getCourseId).filter(id -> !id.equals(courseId)).findFirst().orElseThrow();
+        MockMultipartFile headerOnly = new MockMultipartFile("file", "empty.csv", "text/csv",
+                "ModuleTitle,LessonTitle,LessonType,LessonContent\n".getBytes(StandardCharsets.UTF_8));
+        String job = mockMvc.perform(multipart("/api/courses/" + otherCourse + "/bulk-upload").file(headerOnly)
+                        .header("Authorization", "Bearer " + instructorToken))
+                .andExpect(status().isAccepted()).andReturn().getResponse().getContentAsString();
+        String jobUrl = "/api/import-jobs/" + JsonPath.read(job, "$.jobId");
+
+        String otherInstructor = jwtUtils.generateToken(userRepository.findByEmail("instructor1@example.com").orElseThrow());
+        mockMvc.perform(get(jobUrl).header("Authorization", "Bearer " + instructorToken)).andExpect(status().isOk());
+        mockMvc.perform(get(jobUrl).header("Authorization", "Bearer " + otherInstructor)).andExpect(status().isNotFound());
+        mockMvc.perform(get(jobUrl).header("Authorization", "Bearer " + studentToken)).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void metricsNeedTheMetricsUser() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + instructorToken))
+                .andExpect(status().isUnauthorized());
+        String credentials = Base64.getEncoder().encodeToString(
+                ("prometheus:" + METRICS_PASSWORD).getBytes(StandardCharsets.UTF_8));
+        // Metrics export (and so /actuator/prometheus) is off in tests; /actuator/metrics is behind the same rule
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Basic " + credentials))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void signInIsLimitedPerAccountNotPerAddress() throws Exception {
+        // A class behind one address: many accounts, one attempt each
+        for (int i = 0; i < 40; i++) {
+            int status = mockMvc.perform(loginAs("classmate" + i + "@example.com")).andReturn().getResponse().getStatus();
+            assertNotEquals(429, status);
+        }
+        // One account hammered from that address runs out after the auth burst (30)
+        int status = 0;
+        for (int i = 0; i < 31; i++) {
+            status = mockMvc.perform(loginAs("guessed@example.com")).andReturn().getResponse().getStatus();
+        }
+        assertEquals(429, status);
+    }
+
+    @Test
+    void login() throws Exception {
+        // The user lookup and the new refresh token
+        assertStatements(2, post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"student@example.com\",\"password\":\"" + PASSWORD + "\"}"));
+    }
+
+    @Test
+    void refreshTokensAreSingleUse() throws Exception {
+        MvcResult login = assertStatements(2, post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"student@example.com\",\"password\":\"" + PASSWORD + "\"}"));
+        String first = JsonPath.read(login.getResponse().getContentAsString(), "$.refreshToken");
+
+        // Lookup, mark used, insert the successor
+        MvcResult refreshed = assertStatements(3, refresh(first));
+        String second = JsonPath.read(refreshed.getResponse().getContentAsString(), "$.refreshToken");
+        assertNotEquals(first, second);
+
+        // Replaying the used token revokes the family, including its successor
+        mockMvc.perform(refresh(first)).andExpect(status().isUnauthorized());
+        mockMvc.perform(refresh(second)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logoutRevokesTheAccessToken() throws Exception {
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"student@example.com\",\"password\":\"" + PASSWORD + "\"}"))
+                .andReturn();
+        String body = login.getResponse().getContentAsString();
+        String accessToken = JsonPath.read(body, "$.token");
+        String refreshToken = JsonPath.read(body, "$.refreshToken");
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/import-jobs/unknown").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(refresh(refreshToken)).andExpect(status().isUnauthorized());
+    }
+
+    private static RequestBuilder submitAttempt(String quizPath, String randomQuiz, String token) {
+        return post(quizPath + "/" + JsonPath.read(randomQuiz, "$.quizId") + "/submit")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"answers\":{},\"attemptToken\":\"" + JsonPath.read(randomQuiz, "$.attemptToken") + "\"}");
+    }
+
+    private static RequestBuilder loginAs(String email) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"wrong-password\"}");
+    }
+
+    private static RequestBuilder refresh(String refreshToken) {
+        return post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}");
+    }
+
+    private MvcResult assertStatements(int expected, RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn();
+        SqlStatementCounter.Summary summary = sqlSummary(result);
+        assertEquals(expected, summary.statements(), () -> "SQL statements for "
+                + result.getRequest().getMethod() + " " + result.getRequest().getRequestURI());
+        return result;
+    }
+
+    // Left on the request by RequestMetricsFilter
+    private static SqlStatementCounter.Summary sqlSummary(MvcResult result) {
+        return (SqlStatementCounter.Summary) result.getRequest().getAttribute(SqlStatementCounter.SUMMARY_ATTRIBUTE);
+    }
+
+    private long analyticsAttempts(String path) throws Exception {
+        String body = mockMvc.perform(get(path).header("Authorization", "Bearer " + instructorToken))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.attempts")).longValue();
+    }
+
+    private User user(String email, User.Role role) {
+        return User.builder()
+                .fullName(email)
+                .email(email)
+                .passwordHash(passwordEncoder.encode(PASSWORD))
+                .role(role)
+                .build();
+    }
+
+    private static Quiz quiz(String title) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS_PER_QUIZ; i++) {
+            Question q = new Question();
+            q.setQuestionText(title + " question " + i);
+            q.setOptionA("a");
+            q.setOptionB("b");
+            q.setOptionC("c");
+            q.setOptionD("d");
+            q.setCorrectOption("A");
+            questions.add(q);
+        }
+        Quiz quiz = new Quiz();
+        quiz.setTitle(title);
+        quiz.setDescription(title);
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+}
@@ -0,0 +1,265 @@
+package com.miniprojects.learnandassessportal.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miniprojects.learnandassessportal.model.Course;
+import com.miniprojects.learnandassessportal.model.Module;
+import com.miniprojects.learnandassessportal.model.Question;
+import com.miniprojects.learnandassessportal.model.Quiz;
+import com.miniprojects.learnandassessportal.model.User;
+import com.miniprojects.learnandassessportal.repository.CourseRepository;
+import com.miniprojects.learnandassessportal.repository.ModuleRepository;
+import com.miniprojects.learnandassessportal.repository.UserRepository;
+import com.miniprojects.learnandassessportal.service.QuizService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulates an exam window: thousands of students log in at once, fetch a randomized
+ * quiz and submit it, against the full application on an embedded H2 database.
+ *
+ * Excluded from the normal build; run with
+ *   mvn -Ploadtest test -Dloadtest.students=5000 -Dloadtest.concurrency=200
+ *
+ * Prints p50/p95/p99 latency, throughput and error rate per endpoint and fails when
+ * any endpoint errors on more than 1% of its requests.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"h2", "loadtest"})
+@AutoConfigureObservability(tracing = false) // measure with the metrics production runs with
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExamWindowLoadTest {
+
+    private static final int STUDENTS = Integer.getInteger("loadtest.students", 1_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 100);
+    private static final int POOL_SIZE = Integer.getInteger("loadtest.pool-size", 500);
+    private static final int QUESTIONS_PER_ATTEMPT = 10;
+    private static final String PASSWORD = "exam-window-password";
+
+    @LocalServerPort private int port;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private QuizService quizService;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Integer moduleId;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @BeforeAll
+    void seed() {
+        User instructor = userRepository.save(User.builder()
+                .fullName("Load Test Instructor")
+                .email("instructor@loadtest.local")
+                .passwordHash(passwordEncoder.encode(PASSWORD))
+                .role(User.Role.INSTRUCTOR)
+                .build());
+
+        Course course = new Course();
+        course.setTitle("Exam Window Course");
+        course.setInstructor(instructor);
+        course = courseRepository.save(course);
+
+        Module module = new Module();
+        module.setTitle("Exam Window Module");
+        module.setModuleOrder(1);
+        module.setCourse(course);
+        moduleId = moduleRepository.save(module).getModuleId();
+
+        List<Question> pool = new ArrayList<>(POOL_SIZE);
+        for (int i = 1; i <= POOL_SIZE; i++) {
+            Question q = new Question();
+            q.setQuestionText("Load test question " + i);
+            q.setOptionA("Option A" + i);
+            q.setOptionB("Option B" + i);
+            q.setOptionC("Option C" + i);
+            q.setOptionD("Option D" + i);
+            q.setCorrectOption(String.valueOf((char) ('A' + i % 4)));
+            pool.add(q);
+        }
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Final Exam");
+        quiz.setDescription("Exam window load test");
+        quiz.setQuestions(pool);
+        quizService.saveQuiz(moduleId, quiz);
+
+        // One BCrypt hash for everyone; hashing thousands of passwords here would dominate the setup
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<User> students = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(User.builder()
+                    .fullName("Student " + i)
+                    .email(studentEmail(i))
+                    .passwordHash(hash)
+                    .role(User.Role.STUDENT)
+                    .build());
+        }
+        userRepository.saveAll(students);
+    }
+
+    @Test
+    void examWindow() throws Exception {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        stats.put("POST /api/auth/login", new EndpointStats());
+        stats.put("GET  /quizzes/random", new EndpointStats());
+        stats.put("POST /quizzes/{id}/submit", new EndpointStats());
+
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger completed = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService students = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < STUDENTS; i++) {
+                int student = i;
+                students.submit(() -> {
+                    inFlight.acquireUninterruptibly();
+                    try {
+                        if (takeExam(student, stats)) completed.incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%nExam window: %d students, concurrency %d, %d-question pool, %.1f s, %d completed%n",
+                STUDENTS, CONCURRENCY, POOL_SIZE, seconds, completed.get());
+        System.out.printf("%-28s %8s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "err %", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        stats.forEach((endpoint, s) -> s.print(endpoint, seconds));
+
+        stats.forEach((endpoint, s) -> assertTrue(s.errorRate() < 0.01,
+                endpoint + " error rate " + String.format("%.2f%%", s.errorRate() * 100)));
+    }
+
+    /**
+     * One student: login, fetch a randomized quiz, submit random answers. Stops at the first failure.
+     */
+    private boolean takeExam(int student, Map<String, EndpointStats> stats) {
+        String base = "http://localhost:" + port;
+
+        JsonNode login = call(stats.get("POST /api/auth/login"), post(base + "/api/auth/login", null,
+                Map.of("email", studentEmail(student), "password", PASSWORD)), "token");
+        if (login == null) return false;
+        String token = login.get("token").asText();
+
+        String quizPath = base + "/api/modules/" + moduleId + "/quizzes";
+        JsonNode quiz = call(stats.get("GET  /quizzes/random"), HttpRequest.newBuilder(
+                        URI.create(quizPath + "/random?numQuestions=" + QUESTIONS_PER_ATTEMPT))
+                .header("Authorization", "Bearer " + token)
+                .GET().build(), "attemptToken");
+        if (quiz == null) return false;
+
+        Map<String, String> answers = new LinkedHashMap<>();
+        for (JsonNode q : quiz.get("questions")) {
+            answers.put(q.get("questionId").asText(),
+                    String.valueOf((char) ('A' + ThreadLocalRandom.current().nextInt(4))));
+        }
+        JsonNode result = call(stats.get("POST /quizzes/{id}/submit"), post(
+                quizPath + "/" + quiz.get("quizId").asLong() + "/submit", token,
+                Map.of("answers", answers, "attemptToken", quiz.get("attemptToken").asText())), "score");
+        return result != null;
+    }
+
+    private HttpRequest post(String url, String token, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json");
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        try {
+            return request.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sends the request and records its latency; a non-2xx status, an I/O error or a body
+     * without the expected field counts as an error and returns null. The first few
+     * failures of each endpoint are kept for the report.
+     */
+    private JsonNode call(EndpointStats stats, HttpRequest request, String expectedField) {
+        long start = System.nanoTime();
+        JsonNode body = null;
+        String failure = null;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 == 2) {
+                JsonNode json = objectMapper.readTree(response.body());
+                if (json.hasNonNull(expectedField)) body = json;
+            }
+            if (body == null) failure = response.statusCode() + " " + response.body();
+        } catch (Exception e) {
+            failure = e.toString();
+        }
+        stats.record(System.nanoTime() - start, failure);
+        return body;
+    }
+
+    private static String studentEmail(int i) {
+        return "student" + i + "@loadtest.local";
+    }
+
+    private static final class EndpointStats {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final ConcurrentLinkedQueue<String> sampleFailures = new ConcurrentLinkedQueue<>();
+
+        void record(long nanos, String failure) {
+            latencies.add(nanos);
+            if (failure != null && errors.incrementAndGet() <= 3) {
+                sampleFailures.add(failure.length() > 200 ? failure.substring(0, 200) + "..." : failure);
+            }
+        }
+
+        double errorRate() {
+            return latencies.isEmpty() ? 0 : (double) errors.get() / latencies.size();
+        }
+
+        void print(String endpoint, double seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%-28s %8d %7d %6.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint, sorted.length, errors.get(), errorRate() * 100, sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+            sampleFailures.forEach(failure -> System.out.println("    e.g. " + failure));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
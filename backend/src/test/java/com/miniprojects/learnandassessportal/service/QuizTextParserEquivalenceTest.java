@@ -0,0 +1,233 @@
+package com.miniprojects.learnandassessportal.service;
+
+import com.miniprojects.learnandassessportal.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * QuizTextParser must produce exactly what the legacy regex parser produced.
+ */
+class QuizTextParserEquivalenceTest {
+
+    private final LegacyQuizParser legacy = new LegacyQuizParser();
+    private final QuizUploadService uploadService = new QuizUploadService();
+
+    @Test
+    void documentedFormatsParseTheSame() {
+        assertSame("""
+                1. What is Java?
+                A) A programming language
+                B) A coffee brand
+                C) An operating system
+                D) A database
+                Answer: A
+
+                Q2: What is JVM?
+                A. Java Virtual Machine
+                B. Just Very Mad
+                C. Joint Venture Model
+                D. None
+                Answer: A
+
+                Q: Which keyword defines a constant?
+                (A) var
+                (B) final
+                (C) static
+                (D) const
+                Correct Answer: B
+                """);
+    }
+
+    @Test
+    void edgeCasesParseTheSame() {
+        List<String> samples = List.of(
+                // options and answers on the following line
+                "1. Pick one\nA.\n  first\n(B)\nsecond\nAnswer:\n  b\n",
+                // wrapped question text starting with an option-like word
+                "1. Which of these is\na fruit?\nA) Apple\nB) Brick\nAnswer - option a\n",
+                // asterisk-marked answer, no answer line
+                "Question 3: Capital of France?\nA) Berlin\nB) *Paris*\nC) Rome\n",
+                // trailing answer on the D line, lowercase markers
+                "q1: Largest planet?\na) Mars\nb) Jupiter\nc) Venus\nd) Earth Answer: B\nANSWER= b\n",
+                // marker followed by an indented marker on the next line (not a new start in the old parser)
+                "1.\n   2. Tricky\nA) x\nB) y\nAnswer: A\n",
+                // numbers that look like question starts
+                "1. What is 1.5 + 1.5?\n1.5 is not\nA) 3\nB) 2\nAnswer: A\n",
+                // duplicate letters, empty options, tabs and form feeds
+                "Q 7 ) Duplicates\nA)\t one\nA) two\nB) \nC) three\f\nAnswer: (c)\n",
+                // CRLF and bare CR line endings, unicode line separators
+                "1. CRLF?\r\nA) yes\r\nB) no\r\nAnswer: A\r\n2. CR?\rA) yes\rB) no\rAnswer: B\r3. LS\u2028A) a\u2028B) b\u2028Answer: A",
+                // no numbering at all: blank-line fallback
+                "What is 2+2?\nA) 3\nB) 4\nAnswer: B\n\n   \nWhat is 3+3?\nA) 6\nB) 7\nCorrect Answer: A\n",
+                // nothing parseable
+                "Just some notes\nwithout any questions\n",
+                "1. A question without options\nAnswer: A\n");
+        for (String sample : samples) {
+            assertSame(sample);
+        }
+    }
+
+    @Test
+    void randomizedBanksParseTheSame() {
+        Random random = new Random(20240611L);
+        int parsed = 0;
+        for (int i = 0; i < 2_000; i++) {
+            if (assertSame(randomBank(random, 1 + random.nextInt(12)))) parsed++;
+        }
+        // the generator must exercise successful parses, not just "no questions" errors
+        assertTrue(parsed > 1_000, "only " + parsed + " banks produced questions");
+    }
+
+    @Test
+    void chunkedFeedMatchesSingleFeed() {
+        Random random = new Random(7L);
+        for (int i = 0; i < 300; i++) {
+            String text = randomBank(random, 1 + random.nextInt(20));
+            List<Question> whole = parseWith(text, text.length());
+            List<Question> chunked = parseWith(text, 1 + random.nextInt(40));
+            assertEquals(describe(whole), describe(chunked), text);
+        }
+    }
+
+    @Test
+    void largeBankThroughput() {
+        String bank = largeBank(2_000);
+
+        // warm up both parsers
+        for (int i = 0; i < 3; i++) {
+            legacy.parseQuestions(bank);
+            uploadService.parseQuestions(bank);
+        }
+
+        long legacyStart = System.nanoTime();
+        List<Question> expected = legacy.parseQuestions(bank);
+        long legacyNanos = System.nanoTime() - legacyStart;
+
+        long start = System.nanoTime();
+        List<Question> actual = uploadService.parseQuestions(bank);
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("2,000-question bank: legacy %.1f ms, line parser %.1f ms%n",
+                legacyNanos / 1e6, nanos / 1e6);
+
+        assertEquals(2_000, actual.size());
+        assertEquals(describe(expected), describe(actual));
+        // Lenient target so slow CI machines don't flake: a 2,000-question bank well under a second
+        assertTrue(nanos < 1_000_000_000L, "parsing took " + nanos / 1_000_000 + " ms");
+    }
+
+    private boolean assertSame(String text) {
+        String expected;
+        try {
+            expected = describe(legacy.parseQuestions(text));
+        } catch (IllegalArgumentException e) {
+            expected = "error: " + e.getMessage();
+        }
+        String actual;
+        try {
+            actual = describe(uploadService.parseQuestions(text));
+        } catch (IllegalArgumentException e) {
+            actual = "error: " + e.getMessage();
+        }
+        assertEquals(expected, actual, () -> "Input:\n" + text);
+        return !expected.startsWith("error: ");
+    }
+
+    private static List<Question> parseWith(String text, int chunkSize) {
+        List<Question> out = new ArrayList<>();
+        QuizTextParser parser = new QuizTextParser(out::add);
+        for (int i = 0; i < text.length(); i += chunkSize) {
+            parser.feed(text.substring(i, Math.min(text.length(), i + chunkSize)));
+        }
+        parser.finish();
+        return out;
+    }
+
+    private static String describe(List<Question> questions) {
+        StringBuilder sb = new StringBuilder();
+        for (Question q : questions) {
+            sb.append('[').append(q.getQuestionText())
+                    .append("|A=").append(q.getOptionA())
+                    .append("|B=").append(q.getOptionB())
+                    .append("|C=").append(q.getOptionC())
+                    .append("|D=").append(q.getOptionD())
+                    .append("|=").append(q.getCorrectOption())
+                    .append("]\n");
+        }
+        return sb.toString();
+    }
+
+    private static String largeBank(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            sb.append(i).append(". Which statement about topic ").append(i).append(" is correct?\n")
+                    .append("A) The first option for item ").append(i).append('\n')
+                    .append("B) The second option for item ").append(i).append('\n')
+                    .append("C) The third option for item ").append(i).append('\n')
+                    .append("D) The fourth option for item ").append(i).append('\n')
+                    .append("Answer: ").append((char) ('A' + i % 4)).append("\n\n");
+        }
+        return sb.toString();
+    }
+
+    // --- Random quiz banks with the quirks real PDF/DOCX text has ---
+
+    private static final String[] STARTS = {
+            "%d. ", "%d) ", "Q%d: ", "Q%d. ", "Question %d: ", "q%d) ", "QUESTION %d: ", "Q: ", "  %d . ", "Q)", "%d.", ""
+    };
+    private static final String[] OPTION_FORMATS = {
+            "%s) %s", "%s. %s", "(%s) %s", "%s %s", "%s)\n%s", "%s.\n  %s", "%s: %s", "  %s ) %s", "%s) ", "%s"
+    };
+    private static final String[] ANSWERS = {
+            "Answer: %s", "Correct Answer: %s", "answer - option %s", "ANSWER= (%s)", "Answer:\n%s", "Answer : %s)", ""
+    };
+    private static final String[] WORDS = {
+            "a", "A", "b", "the", "Java", "1.5", "Quick", "answer", "B.", "(c)", "d", "value", "is", "*", "Q", "7)"
+    };
+    private static final String[] NEWLINES = {"\n", "\n", "\n", "\r\n", "\r", "\n \n", "\n\n", "\u2028", "\n\t"};
+
+    private static String randomBank(Random random, int questions) {
+        StringBuilder sb = new StringBuilder();
+        if (random.nextInt(4) == 0) sb.append(words(random)).append(newline(random));
+        for (int q = 1; q <= questions; q++) {
+            sb.append(pick(random, STARTS).replace("%d", Integer.toString(q))).append(words(random));
+            if (random.nextInt(5) == 0) sb.append(newline(random)).append(words(random));
+            sb.append(newline(random));
+
+            int options = random.nextInt(6);
+            for (int o = 0; o < options; o++) {
+                String letter = Character.toString((char) ((random.nextInt(5) == 0 ? 'a' : 'A') + random.nextInt(4)));
+                String text = random.nextInt(6) == 0 ? "*" + words(random) + "*" : words(random);
+                sb.append(String.format(pick(random, OPTION_FORMATS), letter, text)).append(newline(random));
+            }
+            String answerLetter = Character.toString((char) ('A' + random.nextInt(5)));
+            sb.append(String.format(pick(random, ANSWERS), answerLetter)).append(newline(random));
+            if (random.nextBoolean()) sb.append(newline(random));
+        }
+        return sb.toString();
+    }
+
+    private static String words(Random random) {
+        int n = 1 + random.nextInt(5);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(random.nextInt(8) == 0 ? "  " : " ");
+            sb.append(pick(random, WORDS));
+        }
+        return sb.toString();
+    }
+
+    private static String newline(Random random) {
+        return pick(random, NEWLINES);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,108 @@
+package com.miniprojects.learnandassessportal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TieredCache against the in-memory L2 stand-in.
+ */
+class TieredCacheTest {
+
+    private final LocalSharedCacheStore l2 = new LocalSharedCacheStore();
+    private final TieredCache<Integer, String> cache = new TieredCache<>("test", 2, Duration.ofMinutes(5), l2);
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 32;
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> cache.get(1, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "course-1";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("course-1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(callers - 1, cache.getHitCount());
+    }
+
+    @Test
+    void invalidateDuringLoadDiscardsTheResult() {
+        String first = cache.get(1, () -> {
+            cache.invalidate(1);
+            return "stale";
+        });
+        assertEquals("stale", first);
+        assertEquals("fresh", cache.get(1, () -> "fresh"));
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void l1MissIsAnsweredByL2() {
+        cache.get(1, () -> "course-1");
+        cache.clear();
+
+        assertEquals("course-1", cache.get(1, () -> "reloaded"));
+        assertEquals(1, cache.getL2HitCount());
+
+        cache.invalidate(1);
+        assertEquals("reloaded", cache.get(1, () -> "reloaded"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        cache.get(1, () -> "a");
+        cache.get(2, () -> "b");
+        cache.get(1, () -> "a");
+        cache.get(3, () -> "c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.getHitRatio() > 0);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(1, () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals("ok", cache.get(1, () -> "ok"));
+        assertEquals(1, cache.getLoadFailureCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.miniprojects.learnandassessportal.utils;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * GoogleTokenVerifier against a local JWKS file and ID tokens signed in the test.
+ */
+class GoogleTokenVerifierTest {
+
+    private static final String CLIENT_ID = "test-client.apps.googleusercontent.com";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void verifiesLocallySignedTokens() throws Exception {
+        KeyPair key = rsaKey();
+        Path jwks = writeJwks("jwks.json", "k1", key);
+        GoogleTokenVerifier verifier = verifier(jwks, null);
+
+        GoogleIdToken.Payload payload = verifier.verify(sign("k1", key, CLIENT_ID, 3600));
+        assertNotNull(payload);
+        assertEquals("student@example.com", payload.getEmail());
+
+        assertNull(verifier.verify(sign("k1", key, "someone-else", 3600)), "wrong audience");
+        assertNull(verifier.verify(sign("k1", key, CLIENT_ID, -3600)), "expired");
+        assertNull(verifier.verify(sign("k1", rsaKey(), CLIENT_ID, 3600)), "forged signature");
+        assertNull(verifier.verify("not-a-token"));
+    }
+
+    @Test
+    void unknownKeyIdReloadsTheKeySet() throws Exception {
+        KeyPair oldKey = rsaKey();
+        Path jwks = writeJwks("jwks.json", "k1", oldKey);
+        GoogleTokenVerifier verifier = verifier(jwks, null);
+
+        KeyPair rotated = rsaKey();
+        writeJwks("jwks.json", "k2", rotated);
+        assertNotNull(verifier.verify(sign("k2", rotated, CLIENT_ID, 3600)));
+    }
+
+    @Test
+    void storedKeysSurviveAnUnreachableSource() throws Exception {
+        KeyPair key = rsaKey();
+        Path store = dir.resolve("store/google-jwks.json");
+        verifier(writeJwks("jwks.json", "k1", key), store);
+
+        GoogleTokenVerifier restarted = verifier(dir.resolve("missing.json"), store);
+        assertEquals(1, restarted.getKeyCount());
+        assertNotNull(restarted.verify(sign("k1", key, CLIENT_ID, 3600)));
+    }
+
+    private GoogleTokenVerifier verifier(Path jwks, Path store) {
+        GoogleTokenVerifier verifier = new GoogleTokenVerifier(new FileJwksSource(jwks, Duration.ofMinutes(5)),
+                store, List.of(CLIENT_ID), null, Duration.ZERO);
+        verifier.start();
+        return verifier;
+    }
+
+    private static String sign(String keyId, KeyPair key, String audience, long expiresInSeconds) throws Exception {
+        JsonWebSignature.Header header = new JsonWebSignature.Header()
+                .setAlgorithm("RS256")
+                .setKeyId(keyId);
+        long now = System.currentTimeMillis() / 1000;
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload()
+                .setIssuer("https://accounts.google.com")
+                .setAudience(audience)
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + expiresInSeconds)
+                .setEmail("student@example.com");
+        return JsonWebSignature.signUsingRsaSha256(key.getPrivate(), GsonFactory.getDefaultInstance(), header, payload);
+    }
+
+    private Path writeJwks(String name, String keyId, KeyPair key) throws IOException {
+        RSAPublicKey pub = (RSAPublicKey) key.getPublic();
+        Base64.Encoder b64 = Base64.getUrlEncoder().withoutPadding();
+        String json = """
+                {"keys": [{"kty": "RSA", "alg": "RS256", "use": "sig", "kid": "%s", "n": "%s", "e": "%s"}]}
+                """.formatted(keyId, b64.encodeToString(pub.getModulus().toByteArray()),
+                b64.encodeToString(pub.getPublicExponent().toByteArray()));
+        return Files.writeString(dir.resolve(name), json);
+    }
+
+    private static KeyPair rsaKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+}
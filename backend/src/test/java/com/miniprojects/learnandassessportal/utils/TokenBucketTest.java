@@ -0,0 +1,57 @@
+package com.miniprojects.learnandassessportal.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsTheBurstThenRefillsAtTheRate() {
+        // 3 tokens, one every 2 seconds
+        TokenBucket bucket = new TokenBucket(3, 30, 0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(0));
+        }
+
+        long wait = bucket.tryConsume(0);
+        assertEquals(2 * SECOND, wait, SECOND / 1000);
+        assertTrue(bucket.tryConsume(SECOND) > 0);
+        assertEquals(0, bucket.tryConsume(2 * SECOND));
+        assertFalse(bucket.isFull(2 * SECOND));
+        assertTrue(bucket.isFull(8 * SECOND));
+    }
+
+    @Test
+    void concurrentCallersNeverOverdraw() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, 1, System.nanoTime());
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100; i++) {
+                    if (bucket.tryConsume(System.nanoTime()) == 0) granted.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // One token a minute refills nothing meaningful during the test
+        assertEquals(100, granted.get());
+    }
+}
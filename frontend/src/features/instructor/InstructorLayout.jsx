@@ -1,6 +1,7 @@
 import { Link, Outlet, useLocation, useNavigate } from 'react-router-dom';
 import { LayoutDashboard, PlusCircle, BookOpen, LogOut } from 'lucide-react';
 import { clsx } from 'clsx';
+import api from '../../services/api';
 
 const navItems = [
   { icon: LayoutDashboard, label: 'Dashboard', path: '/instructor/dashboard' },
@@ -12,7 +13,13 @@ export default function InstructorLayout() {
   const location = useLocation();
   const navigate = useNavigate();
 
-  const handleLogout = () => {
+  const handleLogout = async () => {
+    // Revoke the refresh token and the current access token; sign out locally even if this fails
+    try {
+      await api.post('/auth/logout', { refreshToken: localStorage.getItem('refreshToken') });
+    } catch (error) {
+      console.error('Logout request failed:', error);
+    }
     localStorage.clear();
     navigate('/login');
   };
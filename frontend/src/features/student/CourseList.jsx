@@ -1,17 +1,31 @@
-import { useQuery } from '@tanstack/react-query';
+import { useInfiniteQuery } from '@tanstack/react-query';
 import { Link } from 'react-router-dom';
 import { Loader2, BookOpen, Image, Users, PlayCircle } from 'lucide-react';
 import api from '../../services/api';
 import Badge from '../../components/ui/Badge';
 import EmptyState from '../../components/ui/EmptyState';
 
+const CATALOG_PAGE_SIZE = 12;
+
 export default function CourseList() {
-  const { data: courses, isLoading, isError } = useQuery({
-    queryKey: ['all-courses'],
-    queryFn: async () => {
-      const res = await api.get('/courses');
+  // Catalog pages are keyed by the cursor the previous page returned
+  const {
+    data,
+    isLoading,
+    isError,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = useInfiniteQuery({
+    queryKey: ['course-catalog'],
+    queryFn: async ({ pageParam }) => {
+      const res = await api.get('/courses/catalog', {
+        params: { limit: CATALOG_PAGE_SIZE, cursor: pageParam ?? undefined },
+      });
       return res.data;
     },
+    initialPageParam: null,
+    getNextPageParam: (lastPage) => lastPage.nextCursor ?? undefined,
   });
 
   if (isLoading) {
@@ -30,7 +44,7 @@ export default function CourseList() {
     );
   }
 
-  const courseList = courses ?? [];
+  const courseList = data?.pages.flatMap((page) => page.items) ?? [];
 
   return (
     <div className="min-h-screen bg-gray-50">
@@ -92,13 +106,13 @@ export default function CourseList() {
                     {course.title}
                   </h3>
                   <p className="mt-2 text-sm text-gray-500 line-clamp-3 leading-relaxed flex-1">
-                    {course.description}
+                    {course.summary}
                   </p>
 
                   {/* Instructor info */}
                   <div className="mt-4 flex items-center gap-2 text-xs text-gray-400">
                     <Users className="h-3.5 w-3.5" />
-                    <span>By {course.instructor?.fullName || 'Instructor'}</span>
+                    <span>By {course.instructorName || 'Instructor'}</span>
                   </div>
                 </div>
 
@@ -116,6 +130,20 @@ export default function CourseList() {
             ))}
           </div>
         )}
+
+        {hasNextPage && (
+          <div className="mt-8 flex justify-center">
+            <button
+              type="button"
+              onClick={() => fetchNextPage()}
+              disabled={isFetchingNextPage}
+              className="inline-flex items-center px-5 py-2.5 bg-white border border-gray-300 text-gray-700 rounded-lg hover:bg-gray-50 transition-colors text-sm font-medium disabled:opacity-60"
+            >
+              {isFetchingNextPage && <Loader2 className="animate-spin h-4 w-4 mr-2" />}
+              Load more courses
+            </button>
+          </div>
+        )}
       </main>
     </div>
   );
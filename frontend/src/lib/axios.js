@@ -12,10 +12,49 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// Access tokens are short-lived. One refresh at a time is shared by every request that got a
+// 401 meanwhile; each of them is retried once with the new token.
+let refreshPromise = null;
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshPromise = (refreshToken
+      ? axios.post(`${api.defaults.baseURL}/auth/refresh`, { refreshToken })
+      : Promise.reject(new Error('No refresh token')))
+      .then((response) => {
+        localStorage.setItem('token', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+      })
+      .catch((error) => {
+        localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
+        throw error;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
 // Response interceptor for handling auth errors
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const original = error.config;
+    if (error.response?.status === 401 && original && !original._retried
+        && !original.url?.startsWith('/auth/') && localStorage.getItem('refreshToken')) {
+      original._retried = true;
+      try {
+        const token = await refreshAccessToken();
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch {
+        // Fall through and report the original 401
+      }
+    }
     if (error.response?.status === 401 || error.response?.status === 403) {
       console.error('Auth error:', error.response?.data);
       // Check if token exists but is invalid
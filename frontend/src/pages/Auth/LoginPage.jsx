@@ -34,10 +34,13 @@ export default function LoginPage() {
         password: data.password
       });
 
-      const { role, message, token } = response.data || {};
+      const { role, message, token, refreshToken } = response.data || {};
       if (token) {
         localStorage.setItem('token', token);
       }
+      if (refreshToken) {
+        localStorage.setItem('refreshToken', refreshToken);
+      }
       if (role) {
         localStorage.setItem('role', role);
         toast.success(message || 'Welcome back!');
@@ -64,6 +67,9 @@ export default function LoginPage() {
 
       // Save YOUR app's token (not Google's)
       localStorage.setItem('token', res.data.token);
+      if (res.data.refreshToken) {
+        localStorage.setItem('refreshToken', res.data.refreshToken);
+      }
       if (res.data.role) {
         localStorage.setItem('role', res.data.role);
         redirectByRole(res.data.role);
@@ -72,10 +72,24 @@ export default function CourseManagerPage() {
     formData.append('file', file);
 
     try {
-      await api.post(`/courses/${courseId}/bulk-upload`, formData, {
+      const { data: submitted } = await api.post(`/courses/${courseId}/bulk-upload`, formData, {
         headers: { 'Content-Type': 'multipart/form-data' },
       });
-      toast.success('Course content uploaded successfully!');
+
+      // The import runs in the background; poll the job until it finishes
+      let job = submitted;
+      while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+        await new Promise((resolve) => setTimeout(resolve, 1000));
+        job = (await api.get(`/import-jobs/${job.jobId}`)).data;
+      }
+
+      if (job.status === 'FAILED') {
+        toast.error(job.message || 'Failed to upload CSV.');
+      } else if (job.rowsFailed > 0) {
+        toast.error(`Uploaded with ${job.rowsFailed} failed rows (first: row ${job.errors?.[0]?.row}: ${job.errors?.[0]?.message})`);
+      } else {
+        toast.success('Course content uploaded successfully!');
+      }
       invalidate();
     } catch (error) {
       const msg = error.response?.data || 'Failed to upload CSV. Please check the format.';
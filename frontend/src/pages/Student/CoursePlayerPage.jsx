@@ -25,17 +25,27 @@ export default function CoursePlayerPage() {
   const [notesModalOpen, setNotesModalOpen] = useState(false);
   const [expandedModules, setExpandedModules] = useState({});
 
-  // Fetch course structure
+  // Fetch course structure: course, modules and lessons in one ordered outline (no lesson text)
   const { data: course, isLoading } = useQuery({
     queryKey: ['course-player', courseId],
     queryFn: async () => {
-      const courseRes = await api.get(`/courses/${courseId}`);
-      const modulesRes = await api.get(`/courses/${courseId}/modules`);
-      // Modules already include lessons via JPA @OneToMany, no extra fetch needed
-      return { ...courseRes.data, modules: modulesRes.data };
+      const res = await api.get(`/courses/${courseId}/outline`);
+      return res.data;
     },
   });
 
+  // Text lessons load their body only when opened
+  const needsText = activeLesson?.contentType === 'TEXT' && activeLesson.textContent == null;
+  const { data: lessonText } = useQuery({
+    queryKey: ['lesson-text', activeLesson?.lessonId],
+    queryFn: async () => {
+      const res = await api.get(`/modules/${activeLesson.moduleId}/lessons/${activeLesson.lessonId}`);
+      return res.data.textContent ?? '';
+    },
+    enabled: needsText,
+  });
+  const displayedLesson = needsText ? { ...activeLesson, textContent: lessonText ?? '' } : activeLesson;
+
   // Flatten all lessons for prev/next navigation
   const allLessons = useMemo(() => {
     if (!course?.modules) return [];
@@ -243,7 +253,7 @@ export default function CoursePlayerPage() {
         {/* Content area */}
         <div className="flex-1 overflow-auto bg-gray-900">
           {activeLesson ? (
-            <ContentRenderer lesson={activeLesson} />
+            <ContentRenderer lesson={displayedLesson} />
           ) : (
             <div className="flex flex-col items-center justify-center h-full text-gray-400">
               <BookOpen className="h-12 w-12 mb-2" />
@@ -297,7 +307,7 @@ export default function CoursePlayerPage() {
         <NotesDownloadModal
           isOpen={notesModalOpen}
           onClose={() => setNotesModalOpen(false)}
-          lesson={activeLesson}
+          lesson={displayedLesson}
         />
       )}
     </div>
@@ -60,32 +60,14 @@ export default function StudentQuizPage() {
     setSubmitting(true);
 
     try {
-      // Evaluate client-side (options are randomized per attempt, so
-      // the correctOption in the response already reflects shuffled order)
-      let correctCount = 0;
-      const questionResults = questions.map((q) => {
-        const selectedOption = selectedAnswers[q.questionId] || '';
-        const isCorrect = q.correctOption?.toUpperCase() === selectedOption?.toUpperCase();
-        if (isCorrect) correctCount++;
-        return {
-          questionId: q.questionId,
-          questionText: q.questionText,
-          selectedOption,
-          correctOption: q.correctOption,
-          correct: isCorrect,
-        };
+      // Graded on the server from the attempt session; the quiz never carries the answers
+      const { data } = await api.post(`/modules/${moduleId}/quizzes/${quiz.quizId}/submit`, {
+        answers: selectedAnswers,
+        attemptToken: quiz.attemptToken,
       });
+      const pct = data.percentage;
 
-      const total = questions.length;
-      const pct = total > 0 ? Math.round((correctCount / total) * 100) : 0;
-
-      setResult({
-        score: correctCount,
-        totalQuestions: total,
-        percentage: pct,
-        passed: pct >= 50,
-        questionResults,
-      });
+      setResult(data);
       setSubmitted(true);
 
       if (pct >= 80) toast.success(`Excellent! You scored ${pct}%`);
@@ -93,7 +75,7 @@ export default function StudentQuizPage() {
       else toast('Keep studying and try again!', { icon: '📖' });
     } catch (error) {
       console.error('Quiz evaluation error:', error);
-      toast.error('Failed to evaluate quiz. Please try again.');
+      toast.error(error.response?.data?.message || 'Failed to evaluate quiz. Please try again.');
     } finally {
       setSubmitting(false);
     }